@@ -0,0 +1,537 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * A precomputed table of the lowest path cost, and the first step of the
+ * shortest path, between every pair of nodes in an IndexedGraph. Looking
+ * up a cost is an array access, and a path is followed one step at a time
+ * from the table of next steps, so this is for graphs small enough that
+ * two int tables of n * n entries fit in memory - up to some tens of
+ * thousands of nodes.
+ *
+ * <p> Both tables are stored row by row, indexed by node number: the entry
+ * for the path from node i to node j is at i * n + j. A table may be saved
+ * to a file and memory mapped back in, so that several processes can share
+ * it without each building it. A single mapping can not exceed 2 GB, so
+ * tables are kept in chunks of CHUNK_INTS entries, each mapped on its own.
+ *
+ * @author lweber
+ */
+public class AllPairsTable {
+	
+	// Cost of a path that does not exist, while building.
+	private static final int NO_PATH = Integer.MAX_VALUE;
+	
+	// Size, in nodes, of the square blocks Floyd-Warshall works on at once.
+	private static final int BLOCK_SIZE = 64;
+	
+	// Entries in each chunk of a table, 1 GB of ints.
+	private static final int CHUNK_SHIFT = 28;
+	private static final int CHUNK_INTS = 1 << CHUNK_SHIFT;
+	
+	private final IndexedGraph graph;
+	private final int nodeCount;
+	private final IntBuffer[] costs;
+	private final IntBuffer[] nextNodes;
+	
+	private AllPairsTable(IndexedGraph graph, int nodeCount, IntBuffer[] costs, IntBuffer[] nextNodes) {
+		this.graph = graph;
+		this.nodeCount = nodeCount;
+		this.costs = costs;
+		this.nextNodes = nextNodes;
+	}
+	
+	/**
+	 * Build the table for a graph, with Floyd-Warshall for dense graphs
+	 * and with a Dijkstra search from every node for sparse graphs.
+	 *
+	 * @param graph -
+	 * @param threads - The number of threads to build with.
+	 *
+	 * @return
+	 */
+	static public AllPairsTable build(IndexedGraph graph, int threads) {
+		AdjacencyArrays adjacency = new AdjacencyArrays(graph);
+		long n = adjacency.nodeCount;
+		
+		// Dijkstra from every node takes about n * m * log(n) steps, and
+		// Floyd-Warshall n * n * n much simpler ones.
+		double log2n = Math.log(Math.max(n, 2)) / Math.log(2);
+		if (4 * adjacency.edgeCount() * log2n > n * n) {
+			return floydWarshall(graph, adjacency, threads);
+		}
+		else {
+			return dijkstra(graph, adjacency, threads);
+		}
+	}
+	
+	/**
+	 * Build the table for a graph with a cache blocked Floyd-Warshall.
+	 *
+	 * @param graph -
+	 * @param threads - The number of threads to build with.
+	 *
+	 * @return
+	 */
+	static public AllPairsTable buildWithFloydWarshall(IndexedGraph graph, int threads) {
+		return floydWarshall(graph, new AdjacencyArrays(graph), threads);
+	}
+	
+	/**
+	 * Build the table for a graph with a Dijkstra search from every node.
+	 *
+	 * @param graph -
+	 * @param threads - The number of threads to build with.
+	 *
+	 * @return
+	 */
+	static public AllPairsTable buildWithDijkstra(IndexedGraph graph, int threads) {
+		return dijkstra(graph, new AdjacencyArrays(graph), threads);
+	}
+	
+	/**
+	 * Memory map a table saved by save().
+	 *
+	 * @param file -
+	 * @param graph - The graph the table was built for.
+	 *
+	 * @return
+	 *
+	 * @throws IOException
+	 */
+	static public AllPairsTable load(File file, IndexedGraph graph) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			FileChannel channel = raf.getChannel();
+			int n = raf.readInt();
+			if (n != graph.getNodeCount()) {
+				throw new IOException("The table is for a graph of " + n + " nodes, not "
+						+ graph.getNodeCount() + ": " + file);
+			}
+			long tableSize = (long) n * n;
+			IntBuffer[] costs = map(channel, 4, tableSize);
+			IntBuffer[] nextNodes = map(channel, 4 + tableSize * 4, tableSize);
+			return new AllPairsTable(graph, n, costs, nextNodes);
+		}
+		finally {
+			// The mappings remain valid after the file is closed.
+			raf.close();
+		}
+	}
+	
+	/**
+	 * Map a table of the given number of entries, a chunk at a time.
+	 */
+	private static IntBuffer[] map(FileChannel channel, long position, long size) throws IOException {
+		IntBuffer[] chunks = new IntBuffer[(int) ((size + CHUNK_INTS - 1) >>> CHUNK_SHIFT)];
+		for (int i = 0; i < chunks.length; i++) {
+			long first = (long) i << CHUNK_SHIFT;
+			long chunkSize = Math.min(CHUNK_INTS, size - first);
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+					position + first * 4, chunkSize * 4);
+			chunks[i] = buffer.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+		}
+		return chunks;
+	}
+	
+	/**
+	 * Split a table built in memory into chunks, without copying it.
+	 */
+	private static IntBuffer[] wrap(int[] table) {
+		IntBuffer[] chunks = new IntBuffer[(int) (((long) table.length + CHUNK_INTS - 1) >>> CHUNK_SHIFT)];
+		for (int i = 0; i < chunks.length; i++) {
+			int first = i << CHUNK_SHIFT;
+			chunks[i] = IntBuffer.wrap(table, first, Math.min(CHUNK_INTS, table.length - first)).slice();
+		}
+		return chunks;
+	}
+	
+	/**
+	 * Save the table to a file, to be memory mapped by load().
+	 *
+	 * @param file -
+	 *
+	 * @throws IOException
+	 */
+	public void save(File file) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try {
+			raf.setLength(0);
+			raf.writeInt(nodeCount);
+			FileChannel channel = raf.getChannel();
+			long tableBytes = (long) nodeCount * nodeCount * 4;
+			copy(costs, channel, 4);
+			copy(nextNodes, channel, 4 + tableBytes);
+		}
+		finally {
+			raf.close();
+		}
+	}
+	
+	private static void copy(IntBuffer[] from, FileChannel channel, long position)
+			throws IOException {
+		for (IntBuffer chunk : from) {
+			long size = (long) chunk.capacity() * 4;
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+			IntBuffer to = buffer.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+			IntBuffer source = chunk.duplicate();
+			source.clear();
+			to.put(source);
+			buffer.force();
+			position += size;
+		}
+	}
+	
+	/**
+	 * Get the number of nodes in the table.
+	 *
+	 * @return
+	 */
+	public int getNodeCount() {
+		return nodeCount;
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from one node to another.
+	 *
+	 * @param from - The starting node's number.
+	 * @param to - The end node's number.
+	 *
+	 * @return The cost, or -1 if no path exists.
+	 */
+	public int getCost(int from, int to) {
+		int cost = get(costs, from * nodeCount + to);
+		return cost == NO_PATH ? -1 : cost;
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from one node to another.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 *
+	 * @return The cost, or -1 if no path exists.
+	 */
+	public int getCost(GraphNode startNode, GraphNode endNode) {
+		return getCost(graph.getNodeIndex(startNode), graph.getNodeIndex(endNode));
+	}
+	
+	/**
+	 * Get the node after the start node on the shortest path between two
+	 * nodes.
+	 *
+	 * @param from - The starting node's number.
+	 * @param to - The end node's number.
+	 *
+	 * @return The next node's number - 'to' itself for a path of one edge,
+	 *  and 'from' if 'from' and 'to' are the same - or -1 if no path exists.
+	 */
+	public int getNextNode(int from, int to) {
+		return get(nextNodes, from * nodeCount + to);
+	}
+	
+	private static int get(IntBuffer[] table, int index) {
+		return table[index >>> CHUNK_SHIFT].get(index & (CHUNK_INTS - 1));
+	}
+	
+	/**
+	 * Get the shortest path between two nodes, following the table of next
+	 * nodes.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if no path exists.
+	 */
+	public List<GraphNode> getPath(GraphNode startNode, GraphNode endNode) {
+		int from = graph.getNodeIndex(startNode);
+		int to = graph.getNodeIndex(endNode);
+		
+		if (getNextNode(from, to) < 0) {
+			return null;
+		}
+		
+		LinkedList<GraphNode> resultList = new LinkedList<GraphNode>();
+		resultList.add(startNode);
+		while (from != to) {
+			from = getNextNode(from, to);
+			resultList.add(graph.getNode(from));
+		}
+		return resultList;
+	}
+	
+	/**
+	 * Floyd-Warshall, a block of BLOCK_SIZE nodes at a time so that the rows
+	 * being worked on stay in cache. For each block k on the diagonal the
+	 * block itself is done first, then the other blocks in row k and column
+	 * k, which only depend on it, and then all remaining blocks, which only
+	 * depend on row k and column k. The blocks of each of the last two
+	 * steps are independent and are shared out between the threads.
+	 */
+	static AllPairsTable floydWarshall(IndexedGraph graph, AdjacencyArrays adjacency, int threads) {
+		final int n = adjacency.nodeCount;
+		final int[] dist = newTable(n, NO_PATH);
+		final int[] next = newTable(n, -1);
+		
+		for (int i = 0; i < n; i++) {
+			dist[i * n + i] = 0;
+			next[i * n + i] = i;
+			for (int e = adjacency.firstEdges[i]; e < adjacency.firstEdges[i + 1]; e++) {
+				int j = adjacency.edgeNodes[e];
+				if (adjacency.edgeCosts[e] < dist[i * n + j]) {
+					dist[i * n + j] = adjacency.edgeCosts[e];
+					next[i * n + j] = j;
+				}
+			}
+		}
+		
+		final int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+		
+		try {
+			for (int kb = 0; kb < blocks; kb++) {
+				final int k = kb;
+				
+				relaxBlock(dist, next, n, k, k, k);
+				
+				List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+				for (int b = 0; b < blocks; b++) {
+					if (b == k) continue;
+					final int ob = b;
+					tasks.add(new Callable<Object>() {
+						public Object call() {
+							relaxBlock(dist, next, n, k, ob, k);
+							relaxBlock(dist, next, n, ob, k, k);
+							return null;
+						}
+					});
+				}
+				runAll(executor, tasks);
+				
+				tasks.clear();
+				for (int b = 0; b < blocks; b++) {
+					if (b == k) continue;
+					final int ib = b;
+					tasks.add(new Callable<Object>() {
+						public Object call() {
+							for (int jb = 0; jb < blocks; jb++) {
+								if (jb != k) {
+									relaxBlock(dist, next, n, ib, jb, k);
+								}
+							}
+							return null;
+						}
+					});
+				}
+				runAll(executor, tasks);
+			}
+		}
+		finally {
+			executor.shutdown();
+		}
+		
+		return new AllPairsTable(graph, n, wrap(dist), wrap(next));
+	}
+	
+	/**
+	 * Relax the paths from the nodes of block 'ib' to the nodes of block
+	 * 'jb' through the nodes of block 'kb'.
+	 */
+	private static void relaxBlock(int[] dist, int[] next, int n, int ib, int jb, int kb) {
+		int kEnd = Math.min(n, (kb + 1) * BLOCK_SIZE);
+		int iEnd = Math.min(n, (ib + 1) * BLOCK_SIZE);
+		int jStart = jb * BLOCK_SIZE;
+		int jEnd = Math.min(n, jStart + BLOCK_SIZE);
+		
+		for (int k = kb * BLOCK_SIZE; k < kEnd; k++) {
+			int kRow = k * n;
+			for (int i = ib * BLOCK_SIZE; i < iEnd; i++) {
+				int iRow = i * n;
+				int dik = dist[iRow + k];
+				if (dik == NO_PATH) continue;
+				int nik = next[iRow + k];
+				for (int j = jStart; j < jEnd; j++) {
+					int dkj = dist[kRow + j];
+					if (dkj != NO_PATH && dik + dkj < dist[iRow + j]) {
+						dist[iRow + j] = dik + dkj;
+						next[iRow + j] = nik;
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * A Dijkstra search from every node, the nodes being shared out between
+	 * the threads. Each search fills in one row of the tables.
+	 */
+	static AllPairsTable dijkstra(IndexedGraph graph, final AdjacencyArrays adjacency, int threads) {
+		final int n = adjacency.nodeCount;
+		final int[] dist = newTable(n, NO_PATH);
+		final int[] next = newTable(n, -1);
+		
+		final int workers = Math.max(1, threads);
+		ExecutorService executor = Executors.newFixedThreadPool(workers);
+		
+		try {
+			List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+			for (int w = 0; w < workers; w++) {
+				final int worker = w;
+				tasks.add(new Callable<Object>() {
+					public Object call() {
+						SingleSourceSearch search = new SingleSourceSearch(adjacency);
+						for (int source = worker; source < n; source += workers) {
+							search.run(source, dist, next);
+						}
+						return null;
+					}
+				});
+			}
+			runAll(executor, tasks);
+		}
+		finally {
+			executor.shutdown();
+		}
+		
+		return new AllPairsTable(graph, n, wrap(dist), wrap(next));
+	}
+	
+	private static int[] newTable(int n, int value) {
+		if ((long) n * n > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many nodes for an all pairs table: " + n);
+		}
+		int[] table = new int[n * n];
+		Arrays.fill(table, value);
+		return table;
+	}
+	
+	private static void runAll(ExecutorService executor, List<Callable<Object>> tasks) {
+		try {
+			for (Future<Object> f : executor.invokeAll(tasks)) {
+				f.get();
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while building the table.", e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to build the table.", e.getCause());
+		}
+	}
+	
+	/**
+	 * The edges of an IndexedGraph in compressed arrays: the edges leaving
+	 * node i are firstEdges[i] up to firstEdges[i + 1], to edgeNodes[e] at a
+	 * cost of edgeCosts[e]. Read from the graph once so that building the
+	 * table does not call the graph from several threads.
+	 */
+	static class AdjacencyArrays {
+		
+		final int nodeCount;
+		final int[] firstEdges;
+		final int[] edgeNodes;
+		final int[] edgeCosts;
+		
+		AdjacencyArrays(IndexedGraph graph) {
+			nodeCount = graph.getNodeCount();
+			firstEdges = new int[nodeCount + 1];
+			
+			int[] nodes = new int[16];
+			int[] nodeCosts = new int[16];
+			int edges = 0;
+			
+			for (int i = 0; i < nodeCount; i++) {
+				firstEdges[i] = edges;
+				GraphNode node = graph.getNode(i);
+				Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(node);
+				while (neighborNodes.hasNext()) {
+					GraphNode neighborNode = neighborNodes.next();
+					if (edges == nodes.length) {
+						nodes = Arrays.copyOf(nodes, edges * 2);
+						nodeCosts = Arrays.copyOf(nodeCosts, edges * 2);
+					}
+					nodes[edges] = graph.getNodeIndex(neighborNode);
+					nodeCosts[edges] = graph.getCostToNeighbor(node, neighborNode);
+					edges++;
+				}
+			}
+			firstEdges[nodeCount] = edges;
+			
+			edgeNodes = Arrays.copyOf(nodes, edges);
+			edgeCosts = Arrays.copyOf(nodeCosts, edges);
+		}
+		
+		long edgeCount() {
+			return edgeNodes.length;
+		}
+		
+	}
+	
+	/**
+	 * Dijkstra's algorithm over AdjacencyArrays, reusing its open list from
+	 * one source node to the next.
+	 */
+	static class SingleSourceSearch {
+		
+		private final AdjacencyArrays adjacency;
+		private final CostHeap heap = new CostHeap();
+		
+		SingleSourceSearch(AdjacencyArrays adjacency) {
+			this.adjacency = adjacency;
+		}
+		
+		void run(int source, int[] dist, int[] next) {
+			int row = source * adjacency.nodeCount;
+			
+			heap.clear();
+			dist[row + source] = 0;
+			next[row + source] = source;
+			heap.push(0, source);
+			
+			while (!heap.isEmpty()) {
+				long top = heap.pop();
+				int d = CostHeap.cost(top);
+				int u = CostHeap.node(top);
+				if (d > dist[row + u]) continue;
+				
+				// The first step towards a neighbor is the first step
+				// towards this node, unless this is the source node.
+				int firstStep = u == source ? -1 : next[row + u];
+				
+				for (int e = adjacency.firstEdges[u]; e < adjacency.firstEdges[u + 1]; e++) {
+					int v = adjacency.edgeNodes[e];
+					int dv = d + adjacency.edgeCosts[e];
+					if (dv < dist[row + v]) {
+						dist[row + v] = dv;
+						next[row + v] = firstStep < 0 ? v : firstStep;
+						heap.push(dv, v);
+					}
+				}
+			}
+		}
+		
+	}
+	
+}
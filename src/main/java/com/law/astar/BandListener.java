@@ -0,0 +1,28 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Interface for receiving the bands of an isochrone search as each one is
+ * completed, before the search goes on to the next.
+ *
+ * @author lweber
+ *
+ * @see IsochroneFinder
+ */
+public interface BandListener {
+	
+	/**
+	 * Called when every node in a band has been reached. Bands are completed
+	 * in order, including empty bands.
+	 *
+	 * @param band - The number of the band, from zero.
+	 * @param threshold - The band's threshold: the highest cost of a node in
+	 *  the band.
+	 * @param nodes - The numbers of the nodes first reached in this band, in
+	 *  order of increasing cost.
+	 */
+	void bandCompleted(int band, int threshold, int[] nodes);
+	
+}
@@ -0,0 +1,323 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Answers a burst of path queries over an IndexedGraph in groups, with one
+ * search per group that expands a node once for all the queries of the
+ * group that have reached it, rather than with one search per query.
+ *
+ * <p> Queries are sorted by start node number and taken MAX_GROUP_SIZE at a
+ * time, so in a graph numbered by NodeOrdering each group starts from
+ * nearby nodes. A group's search keeps, for every node it reaches, a G cost,
+ * H cost and parent for each query of the group, and a bitmask of the
+ * queries whose cost at the node has dropped since it was last expanded.
+ * The open list holds nodes, ordered by the lowest F cost of their flagged
+ * queries. When a node is expanded its neighbors and edge costs are fetched
+ * from the graph once and relaxed for all of its flagged queries at once.
+ * Queries starting near each other reach most nodes at about the same time,
+ * so most nodes are expanded once for many queries.
+ *
+ * <p> Costs are exact. A node may be expanded for a query before its cost
+ * for that query is final, in which case it is expanded again when the cost
+ * drops, as in a label correcting search. A query is finished, and drops out
+ * of the group, once the lowest F cost in the open list is no lower than
+ * the cost of the best path to its end node found so far; that needs the
+ * heuristic to be consistent, as for PathFinder.
+ *
+ * <p> The search state is kept in arrays, reused by the next group without
+ * being cleared, as in OffHeapPathFinder. A BatchPathFinder is not thread
+ * safe; use one per thread.
+ *
+ * @author lweber
+ */
+public class BatchPathFinder {
+	
+	/**
+	 * The most queries searched for together, one per bit of a long.
+	 */
+	public static final int MAX_GROUP_SIZE = 64;
+	
+	private static final int UNREACHED = Integer.MAX_VALUE;
+	
+	// Per node state, indexed by node number: the node's slot in this search.
+	private int stamp = 0;
+	private int[] stamps = new int[0];
+	private int[] slots = new int[0];
+	
+	// Per slot state: the queries flagged for expansion at the slot's node,
+	// and, per query of the group, G cost, H cost and parent node.
+	private int slotCount;
+	private long[] flags = new long[64];
+	private int[] gCosts = new int[64];
+	private int[] hCosts = new int[64];
+	private int[] parents = new int[64];
+	
+	private final CostHeap openList = new CostHeap();
+	
+	/**
+	 * Find the shortest path for each of a list of queries.
+	 *
+	 * @param queries -
+	 * @param graph -
+	 *
+	 * @return The results, in the same order as the queries.
+	 */
+	public List<PathQueryResult> findShortestPaths(List<PathQuery> queries, IndexedGraph graph) {
+		
+		PathQueryResult[] results = new PathQueryResult[queries.size()];
+		search(queries, graph, results, null);
+		return Arrays.asList(results);
+	}
+	
+	/**
+	 * Get the lowest path cost for each of a list of queries.
+	 *
+	 * @param queries -
+	 * @param graph -
+	 *
+	 * @return The costs, in the same order as the queries, -1 where no path
+	 *  exists.
+	 */
+	public int[] findLowestPathCosts(List<PathQuery> queries, IndexedGraph graph) {
+		
+		int[] costs = new int[queries.size()];
+		search(queries, graph, null, costs);
+		return costs;
+	}
+	
+	/**
+	 * Sort the queries by start node number and search for them a group at
+	 * a time, filling in either results or costs.
+	 */
+	private void search(List<PathQuery> queries, IndexedGraph graph,
+			PathQueryResult[] results, int[] costs) {
+		
+		int n = queries.size();
+		
+		// (start node << 32) | query position.
+		long[] order = new long[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = ((long) graph.getNodeIndex(queries.get(i).getStartNode()) << 32) | i;
+		}
+		Arrays.sort(order);
+		
+		int[] group = new int[MAX_GROUP_SIZE];
+		for (int first = 0; first < n; first += MAX_GROUP_SIZE) {
+			int k = Math.min(MAX_GROUP_SIZE, n - first);
+			for (int q = 0; q < k; q++) {
+				group[q] = (int) order[first + q];
+			}
+			searchGroup(queries, group, k, graph, results, costs);
+		}
+	}
+	
+	/**
+	 * Search for a group of up to MAX_GROUP_SIZE queries together.
+	 */
+	private void searchGroup(List<PathQuery> queries, int[] group, int k, IndexedGraph graph,
+			PathQueryResult[] results, int[] costs) {
+		
+		prepare(graph.getNodeCount(), k);
+		
+		Heuristic[] heuristics = new Heuristic[k];
+		int[] ends = new int[k];
+		int[] bestCosts = new int[k];
+		long active = k == 64 ? -1L : (1L << k) - 1;
+		long found = 0;
+		
+		for (int q = 0; q < k; q++) {
+			PathQuery query = queries.get(group[q]);
+			heuristics[q] = PathFinder.endNodeHeuristic(query.getEndNode(), graph);
+			ends[q] = graph.getNodeIndex(query.getEndNode());
+			bestCosts[q] = UNREACHED;
+			
+			int start = graph.getNodeIndex(query.getStartNode());
+			int label = getSlot(start, k) * k + q;
+			gCosts[label] = 0;
+			hCosts[label] = heuristics[q].estimateCost(query.getStartNode());
+			parents[label] = -1;
+			
+			if (start == ends[q]) {
+				bestCosts[q] = 0;
+				found |= 1L << q;
+			}
+			else {
+				flags[label / k] |= 1L << q;
+				openList.push(hCosts[label], start);
+			}
+		}
+		
+		while (!openList.isEmpty() && active != 0) {
+			long top = openList.pop();
+			int cur = CostHeap.node(top);
+			int f = CostHeap.cost(top);
+			int slot = slots[cur];
+			
+			// Skip entries for nodes since flagged at a lower cost, or already
+			// expanded for all the queries flagged at this cost.
+			long expanding = flags[slot] & active;
+			if (expanding == 0) continue;
+			int lowestF = getLowestF(slot, expanding, k);
+			if (f > lowestF) continue;
+			
+			// Queries flagged at this cost have finished, so the node goes
+			// back in line at the cost of those left.
+			if (f < lowestF) {
+				openList.push(lowestF, cur);
+				continue;
+			}
+			
+			// No query can find a path cheaper than f any more.
+			for (long bits = found & active; bits != 0; bits &= bits - 1) {
+				int q = Long.numberOfTrailingZeros(bits);
+				if (bestCosts[q] <= f) {
+					active &= ~(1L << q);
+				}
+			}
+			expanding &= active;
+			if (expanding == 0) continue;
+			flags[slot] &= ~expanding;
+			
+			GraphNode curNode = graph.getNode(cur);
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(curNode);
+			
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				int n = graph.getNodeIndex(neighborNode);
+				int cost = graph.getCostToNeighbor(curNode, neighborNode);
+				
+				int neighborSlot = -1;
+				long improved = 0;
+				
+				for (long bits = expanding; bits != 0; bits &= bits - 1) {
+					int q = Long.numberOfTrailingZeros(bits);
+					int g = gCosts[slot * k + q] + cost;
+					
+					if (neighborSlot < 0) {
+						neighborSlot = getSlot(n, k);
+					}
+					int label = neighborSlot * k + q;
+					if (g >= gCosts[label]) continue;
+					
+					if (hCosts[label] < 0) {
+						hCosts[label] = heuristics[q].estimateCost(neighborNode);
+					}
+					
+					// Not worth following if it can not beat the best path.
+					if ((long) g + hCosts[label] >= bestCosts[q]) continue;
+					
+					gCosts[label] = g;
+					parents[label] = cur;
+					
+					if (n == ends[q]) {
+						bestCosts[q] = g;
+						found |= 1L << q;
+					}
+					else {
+						improved |= 1L << q;
+					}
+				}
+				
+				if (improved != 0) {
+					flags[neighborSlot] |= improved;
+					openList.push(getLowestF(neighborSlot, flags[neighborSlot] & active, k), n);
+				}
+			}
+		}
+		
+		for (int q = 0; q < k; q++) {
+			int cost = bestCosts[q] == UNREACHED ? -1 : bestCosts[q];
+			if (costs != null) {
+				costs[group[q]] = cost;
+			}
+			else {
+				PathQuery query = queries.get(group[q]);
+				results[group[q]] = new PathQueryResult(query,
+						cost < 0 ? null : new PathResult(getNodes(ends[q], q, k, graph), cost));
+			}
+		}
+	}
+	
+	/**
+	 * Get the lowest F cost, at a slot, of the given queries.
+	 */
+	private int getLowestF(int slot, long queryBits, int k) {
+		int lowestF = Integer.MAX_VALUE;
+		for (long bits = queryBits; bits != 0; bits &= bits - 1) {
+			int label = slot * k + Long.numberOfTrailingZeros(bits);
+			lowestF = Math.min(lowestF, gCosts[label] + hCosts[label]);
+		}
+		return lowestF;
+	}
+	
+	/**
+	 * Get the slot of a node, giving it one, with no costs, if it has none
+	 * in this search yet.
+	 */
+	private int getSlot(int n, int k) {
+		if (stamps[n] == stamp) {
+			return slots[n];
+		}
+		
+		int slot = slotCount++;
+		if ((slot + 1) * k > gCosts.length) {
+			int size = Math.max(gCosts.length * 2, (slot + 1) * k);
+			gCosts = Arrays.copyOf(gCosts, size);
+			hCosts = Arrays.copyOf(hCosts, size);
+			parents = Arrays.copyOf(parents, size);
+		}
+		if (slot == flags.length) {
+			flags = Arrays.copyOf(flags, slot * 2);
+		}
+		
+		Arrays.fill(gCosts, slot * k, (slot + 1) * k, UNREACHED);
+		Arrays.fill(hCosts, slot * k, (slot + 1) * k, -1);
+		flags[slot] = 0;
+		
+		stamps[n] = stamp;
+		slots[n] = slot;
+		return slot;
+	}
+	
+	/**
+	 * Get the nodes of a query's path, from its start node to the given end.
+	 */
+	private List<GraphNode> getNodes(int end, int q, int k, IndexedGraph graph) {
+		List<GraphNode> resultList = new ArrayList<GraphNode>();
+		for (int n = end; n >= 0; n = parents[slots[n] * k + q]) {
+			resultList.add(graph.getNode(n));
+		}
+		Collections.reverse(resultList);
+		return resultList;
+	}
+	
+	/**
+	 * Make the node arrays large enough for the given number of nodes and
+	 * start a new search stamp.
+	 */
+	private void prepare(int nodeCount, int k) {
+		if (nodeCount > stamps.length) {
+			stamps = new int[nodeCount];
+			slots = new int[nodeCount];
+			stamp = 0;
+		}
+		
+		if (++stamp == Integer.MAX_VALUE) {
+			// Start the stamps over rather than let them wrap around.
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		
+		slotCount = 0;
+		openList.clear();
+	}
+	
+}
@@ -0,0 +1,346 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Methods for finding paths in a graph within a fixed memory budget, using
+ * the IDA* (Iterative Deepening A*) search algorithm.
+ *
+ * <p> Unlike PathFinder, which keeps every generated node in its open and
+ * closed sets, IDA* runs a series of depth first searches bounded by an
+ * increasing F cost limit and only needs to keep the current path. A
+ * transposition table of the lowest G cost seen for recently visited nodes
+ * prunes duplicate paths; it holds at most 'maxStoredNodes' nodes, less the
+ * nodes on the current path, and evicts the least recently used node when
+ * it is full. The trade is CPU for memory: nodes are generated again on
+ * each iteration, and again when they fall out of the table.
+ *
+ * <p> The current path counts against the budget too, so a branch is cut
+ * off where its path would hold more than 'maxStoredNodes' nodes. The end
+ * node is never pushed on the path, so a budget of one less than the number
+ * of nodes in the shortest path is enough to find it. The path returned is
+ * the shortest of the paths that fit within the budget. If a branch that
+ * was cut off might have held a cheaper path, or any path when none was
+ * found, the search sets the budget exceeded flag of the SearchStatistics
+ * passed to it, so that a budget that is too small can be told apart from
+ * there being no path. When no path fits, every path that does fit is
+ * searched before the search gives up, which can take a long time.
+ *
+ * @author lweber
+ */
+public class BoundedPathFinder {
+	
+	/**
+	 * Find and return the shortest path between two nodes using the IDA*
+	 * search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param maxStoredNodes - The memory budget, in nodes.
+	 * @param graph -
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	static public List<GraphNode> findShortestPath(
+			GraphNode startNode, GraphNode endNode, int maxStoredNodes, Graph graph) {
+		
+		return findShortestPath(startNode, endNode, maxStoredNodes, graph, null);
+	}
+	
+	/**
+	 * Find and return the shortest path between two nodes using the IDA*
+	 * search algorithm, recording the work done and the memory used.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param maxStoredNodes - The memory budget, in nodes.
+	 * @param graph -
+	 * @param stats - Filled in by the search, or null.
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	static public List<GraphNode> findShortestPath(GraphNode startNode,
+			GraphNode endNode, int maxStoredNodes, Graph graph, SearchStatistics stats) {
+		
+		PathResult result = idaStar(startNode, endNode, maxStoredNodes, graph, stats);
+		return result == null ? null : result.getNodes();
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from a given start node to a given
+	 * end node in a graph using the IDA* search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param maxStoredNodes - The memory budget, in nodes.
+	 * @param graph -
+	 *
+	 * @return The cost from startNode to endNode, or -1 if no path exists.
+	 */
+	static public int findLowestPathCost(
+			GraphNode startNode, GraphNode endNode, int maxStoredNodes, Graph graph) {
+		
+		return findLowestPathCost(startNode, endNode, maxStoredNodes, graph, null);
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from a given start node to a given
+	 * end node in a graph using the IDA* search algorithm, recording the
+	 * work done and the memory used.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param maxStoredNodes - The memory budget, in nodes.
+	 * @param graph -
+	 * @param stats - Filled in by the search, or null.
+	 *
+	 * @return The cost from startNode to endNode, or -1 if no path exists.
+	 */
+	static public int findLowestPathCost(GraphNode startNode,
+			GraphNode endNode, int maxStoredNodes, Graph graph, SearchStatistics stats) {
+		
+		PathResult result = idaStar(startNode, endNode, maxStoredNodes, graph, stats);
+		return result == null ? -1 : result.getCost();
+	}
+	
+	/**
+	 * IDA* path finding algorithm.
+	 *
+	 * @param startNode - Starting node for the search.
+	 * @param endNode - End node.
+	 * @param maxStoredNodes - The memory budget, in nodes.
+	 * @param graph - The graph containing the nodes.
+	 * @param stats - Filled in by the search, or null.
+	 *
+	 * @return The path, or null if a path was not found.
+	 */
+	static PathResult idaStar(GraphNode startNode, GraphNode endNode,
+			int maxStoredNodes, Graph graph, SearchStatistics stats) {
+		
+		Heuristic heuristic = PathFinder.endNodeHeuristic(endNode, graph);
+		
+		PathNode startPathNode = new PathNode(startNode, heuristic, graph);
+		
+		if (startNode.equals(endNode)) {
+			return new PathResult(startPathNode);
+		}
+		
+		int costLimit = startPathNode.getF();
+		
+		// Each iteration searches every path within the memory budget whose
+		// F cost is within the limit. If no path to the end node is found
+		// the limit is raised to the lowest F cost that was cut off, so the
+		// first path found is the shortest that fits within the budget.
+		// Branches cut off for want of memory are never searched, whatever
+		// the limit, so they do not stop the search.
+		int lowestCutOffCost = Integer.MAX_VALUE;
+		while (costLimit < Integer.MAX_VALUE) {
+			DepthFirstSearch search = new DepthFirstSearch(
+					endNode, costLimit, maxStoredNodes, heuristic, graph, stats);
+			
+			PathNode endPathNode = search.run(startPathNode);
+			lowestCutOffCost = Math.min(lowestCutOffCost, search.getLowestCutOffCost());
+			
+			if (endPathNode != null) {
+				// A branch cut off below the path's cost might hold a
+				// cheaper path with more nodes than the budget.
+				if (lowestCutOffCost < endPathNode.getG() && stats != null) {
+					stats.budgetExceeded();
+				}
+				return new PathResult(endPathNode);
+			}
+			
+			costLimit = search.getNextCostLimit();
+		}
+		
+		if (lowestCutOffCost < Integer.MAX_VALUE && stats != null) {
+			stats.budgetExceeded();
+		}
+		return null;
+	}
+	
+	/**
+	 * One cost limited depth first iteration of IDA*. The current path is
+	 * kept as a stack of PathNodes, each with an iterator of its remaining
+	 * neighbors, so that long paths do not overflow the thread's stack.
+	 *
+	 * <p> The transposition table holds the G cost and the path depth of
+	 * each node, packed into a long. A node is only pruned if it was seen
+	 * with a G cost and a depth no higher, since a branch seen deeper on the
+	 * path has had less of the memory budget to search in.
+	 */
+	static class DepthFirstSearch {
+		
+		private final GraphNode endNode;
+		private final int costLimit;
+		private final int maxStoredNodes;
+		private final Heuristic heuristic;
+		private final Graph graph;
+		private final SearchStatistics stats;
+		
+		private final List<PathNode> pathStack = new ArrayList<PathNode>();
+		private final List<Iterator<? extends GraphNode>> neighborStack =
+				new ArrayList<Iterator<? extends GraphNode>>();
+		private final Set<GraphNode> pathNodes = new HashSet<GraphNode>();
+		
+		// G cost and depth seen for each node, in least recently used order.
+		private final LinkedHashMap<GraphNode, Long> transpositionTable =
+				new LinkedHashMap<GraphNode, Long>(16, 0.75f, true);
+		
+		private int nextCostLimit = Integer.MAX_VALUE;
+		private int lowestCutOffCost = Integer.MAX_VALUE;
+		
+		DepthFirstSearch(GraphNode endNode, int costLimit, int maxStoredNodes,
+				Heuristic heuristic, Graph graph, SearchStatistics stats) {
+			this.endNode = endNode;
+			this.costLimit = costLimit;
+			this.maxStoredNodes = maxStoredNodes;
+			this.heuristic = heuristic;
+			this.graph = graph;
+			this.stats = stats;
+		}
+		
+		/**
+		 * Get the lowest F cost that exceeded the cost limit during run().
+		 *
+		 * @return The cost limit for the next iteration, or
+		 *  Integer.MAX_VALUE if nothing was cut off.
+		 */
+		int getNextCostLimit() {
+			return nextCostLimit;
+		}
+		
+		/**
+		 * Get the lowest F cost of the branches run() cut off because their
+		 * path would not fit in the memory budget.
+		 *
+		 * @return The lowest F cost, or Integer.MAX_VALUE if nothing was
+		 *  cut off for want of memory.
+		 */
+		int getLowestCutOffCost() {
+			return lowestCutOffCost;
+		}
+		
+		/**
+		 * Search from the start node for a path to the end node whose cost
+		 * is within the cost limit.
+		 *
+		 * @param startPathNode -
+		 *
+		 * @return The path node for the end node, or null if not found.
+		 */
+		PathNode run(PathNode startPathNode) {
+			if (maxStoredNodes < 1) {
+				lowestCutOffCost = startPathNode.getF();
+				return null;
+			}
+			push(startPathNode);
+			
+			while (!pathStack.isEmpty()) {
+				int top = pathStack.size() - 1;
+				PathNode curNode = pathStack.get(top);
+				Iterator<? extends GraphNode> neighborNodes = neighborStack.get(top);
+				
+				if (!neighborNodes.hasNext()) {
+					pop();
+					continue;
+				}
+				
+				GraphNode neighborNode = neighborNodes.next();
+				
+				// Paths that loop back on themselves are never the shortest.
+				if (pathNodes.contains(neighborNode)) continue;
+				
+				PathNode neighborPathNode = new PathNode(neighborNode, heuristic, graph);
+				neighborPathNode.setParent(curNode);
+				
+				int f = neighborPathNode.getF();
+				int depth = pathStack.size();
+				boolean isEndNode = neighborNode.equals(endNode);
+				
+				// The path is as long as the memory budget allows, so only the
+				// end node may follow, and raising the cost limit would not
+				// let any other node be searched.
+				if (depth >= maxStoredNodes && !isEndNode) {
+					lowestCutOffCost = Math.min(lowestCutOffCost, f);
+					continue;
+				}
+				
+				if (f > costLimit) {
+					nextCostLimit = Math.min(nextCostLimit, f);
+					continue;
+				}
+				
+				if (isEndNode) {
+					return neighborPathNode;
+				}
+				
+				// If the node has already been searched with the same or a
+				// lower G cost, no deeper on the path, in this iteration then
+				// nothing new can be found beneath it.
+				int g = neighborPathNode.getG();
+				Long seen = transpositionTable.get(neighborNode);
+				if (seen != null && (int) (seen.longValue() >>> 32) <= g
+						&& (int) seen.longValue() <= depth) continue;
+				
+				remember(neighborNode, g, depth);
+				push(neighborPathNode);
+			}
+			
+			return null;
+		}
+		
+		private void push(PathNode pn) {
+			pathStack.add(pn);
+			neighborStack.add(graph.getNeighborNodes(pn.getGraphNode()));
+			pathNodes.add(pn.getGraphNode());
+			
+			if (stats != null) {
+				stats.nodeExpanded();
+				stats.setStoredNodes(pathStack.size() + transpositionTable.size());
+			}
+		}
+		
+		private void pop() {
+			int top = pathStack.size() - 1;
+			pathNodes.remove(pathStack.remove(top).getGraphNode());
+			neighborStack.remove(top);
+		}
+		
+		/**
+		 * Record the G cost and path depth of a node in the transposition
+		 * table, evicting the least recently used nodes if the table would
+		 * exceed the part of the memory budget not taken by the current path
+		 * once the node is pushed on it.
+		 */
+		private void remember(GraphNode gn, int g, int depth) {
+			int capacity = Math.max(0, maxStoredNodes - pathStack.size() - 1);
+			
+			if (capacity > 0) {
+				transpositionTable.put(gn, Long.valueOf(((long) g << 32) | depth));
+			}
+			else {
+				transpositionTable.remove(gn);
+			}
+			
+			// The node just put is the most recently used, so it is kept.
+			Iterator<GraphNode> it = transpositionTable.keySet().iterator();
+			while (transpositionTable.size() > capacity && it.hasNext()) {
+				it.next();
+				it.remove();
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,198 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One cell of a partitioned graph, as held by the shard that owns it: a set
+ * of nodes of the graph, and which of them are boundary nodes - nodes with
+ * an edge to or from another cell. Searches within the cell only follow
+ * edges between the cell's nodes.
+ *
+ * <p> A cell's summary is computed when the cell is created and again
+ * whenever rebuild() is called, for instance after edge weights within the
+ * cell, or on edges leaving it, have changed. Each cell is rebuilt on its
+ * own.
+ *
+ * @author lweber
+ *
+ * @see GraphPartitioner
+ */
+public class Cell {
+	
+	private final int cellId;
+	private final Graph graph;
+	private final Set<GraphNode> cellNodes;
+	private final List<GraphNode> boundaryNodes;
+	private final Map<GraphNode, Integer> boundaryPositions;
+	private final Graph cellGraph;
+	
+	private volatile CellSummary summary;
+	
+	/**
+	 * Construct a new Cell and compute its summary.
+	 *
+	 * @param cellId - the cell's number.
+	 * @param graph - the whole graph, or at least the cell's part of it.
+	 * @param nodes - the nodes in the cell.
+	 * @param boundaryNodes - the nodes in the cell with an edge to or from
+	 *  another cell.
+	 */
+	public Cell(int cellId, Graph graph, Set<GraphNode> nodes, List<GraphNode> boundaryNodes) {
+		this.cellId = cellId;
+		this.graph = graph;
+		this.cellNodes = nodes;
+		this.boundaryNodes = boundaryNodes;
+		this.boundaryPositions = new HashMap<GraphNode, Integer>(boundaryNodes.size() * 4 / 3 + 1);
+		for (int i = 0; i < boundaryNodes.size(); i++) {
+			boundaryPositions.put(boundaryNodes.get(i), Integer.valueOf(i));
+		}
+		this.cellGraph = new CellGraph();
+		rebuild();
+	}
+	
+	public int getCellId() {
+		return cellId;
+	}
+	
+	/**
+	 * Get the nodes in the cell.
+	 *
+	 * @return
+	 */
+	public Set<GraphNode> getNodes() {
+		return Collections.unmodifiableSet(cellNodes);
+	}
+	
+	/**
+	 * Get the cell's summary, as of the last rebuild().
+	 *
+	 * @return
+	 */
+	public CellSummary getSummary() {
+		return summary;
+	}
+	
+	/**
+	 * Recompute the costs between boundary nodes, and the costs of the edges
+	 * leaving the cell, from the graph's current edge weights.
+	 */
+	public void rebuild() {
+		int[][] boundaryCosts = new int[boundaryNodes.size()][];
+		List<List<GraphNode>> exitNodes = new ArrayList<List<GraphNode>>(boundaryNodes.size());
+		int[][] exitCosts = new int[boundaryNodes.size()][];
+		
+		for (int i = 0; i < boundaryNodes.size(); i++) {
+			GraphNode b = boundaryNodes.get(i);
+			boundaryCosts[i] = getCostsToBoundary(b);
+			
+			List<GraphNode> exits = new ArrayList<GraphNode>();
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(b);
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				if (!cellNodes.contains(neighborNode)) {
+					exits.add(neighborNode);
+				}
+			}
+			
+			exitCosts[i] = new int[exits.size()];
+			for (int k = 0; k < exits.size(); k++) {
+				exitCosts[i][k] = graph.getCostToNeighbor(b, exits.get(k));
+			}
+			exitNodes.add(exits);
+		}
+		
+		summary = new CellSummary(cellId, boundaryNodes, boundaryCosts, exitNodes, exitCosts);
+	}
+	
+	/**
+	 * Get the lowest cost from a node in the cell to each of the cell's
+	 * boundary nodes, in one search within the cell.
+	 *
+	 * @param from -
+	 *
+	 * @return The costs, in the order of the boundary nodes, -1 if none.
+	 */
+	public int[] getCostsToBoundary(GraphNode from) {
+		int[] costs = new int[boundaryNodes.size()];
+		Arrays.fill(costs, -1);
+		
+		List<PathResult> resultList = PathFinder.findNearestNodes(from,
+				boundaryPositions.keySet(), boundaryNodes.size(), null, cellGraph);
+		
+		for (PathResult result : resultList) {
+			costs[boundaryPositions.get(result.getEndNode()).intValue()] = result.getCost();
+		}
+		
+		return costs;
+	}
+	
+	/**
+	 * Get the lowest cost from each of the cell's boundary nodes to a node
+	 * in the cell.
+	 *
+	 * @param to -
+	 *
+	 * @return The costs, in the order of the boundary nodes, -1 if none.
+	 */
+	public int[] getCostsFromBoundary(GraphNode to) {
+		int[] costs = new int[boundaryNodes.size()];
+		
+		for (int i = 0; i < boundaryNodes.size(); i++) {
+			costs[i] = PathFinder.findLowestPathCost(boundaryNodes.get(i), to, cellGraph);
+		}
+		
+		return costs;
+	}
+	
+	/**
+	 * Find the shortest path between two nodes of the cell, within the cell.
+	 *
+	 * @param from -
+	 * @param to -
+	 *
+	 * @return The path, with its nodes ordered from 'from' to 'to', or null
+	 *  if there is no path within the cell.
+	 */
+	public PathResult findPath(GraphNode from, GraphNode to) {
+		return PathFinder.findNearestNode(from, Collections.singleton(to), cellGraph);
+	}
+	
+	/**
+	 * The graph restricted to the nodes of this cell.
+	 */
+	class CellGraph implements Graph {
+		
+		public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+			Set<GraphNode> neighbors = new LinkedHashSet<GraphNode>();
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(n);
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				if (cellNodes.contains(neighborNode)) {
+					neighbors.add(neighborNode);
+				}
+			}
+			return neighbors.iterator();
+		}
+		
+		public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+			return graph.getCostToNeighbor(n1, n2);
+		}
+		
+		public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+			return graph.estimateCostToEnd(startNode, endNode);
+		}
+		
+	}
+	
+}
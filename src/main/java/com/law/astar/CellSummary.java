@@ -0,0 +1,64 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.List;
+
+/**
+ * What a PartitionedGraph needs to know about one cell of a partitioned
+ * graph: the cell's boundary nodes, the lowest cost between each pair of
+ * them within the cell, and the edges that leave the cell from each of them.
+ *
+ * @author lweber
+ */
+public class CellSummary {
+	
+	private final int cellId;
+	private final List<GraphNode> boundaryNodes;
+	private final int[][] boundaryCosts;
+	private final List<List<GraphNode>> exitNodes;
+	private final int[][] exitCosts;
+	
+	/**
+	 * Construct a new CellSummary.
+	 *
+	 * @param cellId - the cell's number.
+	 * @param boundaryNodes - the cell's boundary nodes.
+	 * @param boundaryCosts - boundaryCosts[i][j] is the lowest cost from
+	 *  boundary node i to boundary node j within the cell, or -1.
+	 * @param exitNodes - exitNodes.get(i) are the nodes in other cells that
+	 *  are neighbors of boundary node i.
+	 * @param exitCosts - exitCosts[i][k] is the cost from boundary node i to
+	 *  exitNodes.get(i).get(k).
+	 */
+	public CellSummary(int cellId, List<GraphNode> boundaryNodes, int[][] boundaryCosts,
+			List<List<GraphNode>> exitNodes, int[][] exitCosts) {
+		this.cellId = cellId;
+		this.boundaryNodes = boundaryNodes;
+		this.boundaryCosts = boundaryCosts;
+		this.exitNodes = exitNodes;
+		this.exitCosts = exitCosts;
+	}
+	
+	public int getCellId() {
+		return cellId;
+	}
+	
+	public List<GraphNode> getBoundaryNodes() {
+		return boundaryNodes;
+	}
+	
+	public int[][] getBoundaryCosts() {
+		return boundaryCosts;
+	}
+	
+	public List<List<GraphNode>> getExitNodes() {
+		return exitNodes;
+	}
+	
+	public int[][] getExitCosts() {
+		return exitCosts;
+	}
+	
+}
@@ -0,0 +1,82 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Interface through which a PartitionedGraph reaches the cells of a
+ * partitioned graph. Each cell is owned by a shard - another process, or
+ * another machine - which holds the cell's part of the graph and answers
+ * questions about it. An implementation of this interface sends each
+ * request to the shard that owns the cell.
+ *
+ * <p> Costs of -1 mean there is no path within the cell.
+ *
+ * @author lweber
+ *
+ * @see LocalCellTransport
+ */
+public interface CellTransport {
+	
+	/**
+	 * Get the number of cells. Cells are numbered from zero.
+	 *
+	 * @return
+	 */
+	int getCellCount();
+	
+	/**
+	 * Get the number of the cell that contains a given node.
+	 *
+	 * @param n -
+	 *
+	 * @return The cell number, or -1 if no cell contains the node.
+	 */
+	int getCellId(GraphNode n);
+	
+	/**
+	 * Get the boundary nodes of a cell, the costs between them, and the
+	 * edges that leave the cell from them.
+	 *
+	 * @param cellId -
+	 *
+	 * @return
+	 */
+	CellSummary getCellSummary(int cellId);
+	
+	/**
+	 * Get the lowest cost from a node in a cell to each of the cell's
+	 * boundary nodes, using only paths within the cell.
+	 *
+	 * @param cellId -
+	 * @param from -
+	 *
+	 * @return The costs, in the order of CellSummary.getBoundaryNodes().
+	 */
+	int[] getCostsToBoundary(int cellId, GraphNode from);
+	
+	/**
+	 * Get the lowest cost from each of a cell's boundary nodes to a node in
+	 * the cell, using only paths within the cell.
+	 *
+	 * @param cellId -
+	 * @param to -
+	 *
+	 * @return The costs, in the order of CellSummary.getBoundaryNodes().
+	 */
+	int[] getCostsFromBoundary(int cellId, GraphNode to);
+	
+	/**
+	 * Find the shortest path between two nodes of a cell, using only
+	 * paths within the cell.
+	 *
+	 * @param cellId -
+	 * @param from -
+	 * @param to -
+	 *
+	 * @return The path, with its nodes ordered from 'from' to 'to', or null
+	 *  if there is no path within the cell.
+	 */
+	PathResult findPathInCell(int cellId, GraphNode from, GraphNode to);
+	
+}
@@ -0,0 +1,212 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A copy of a graph, or of part of one, with its nodes renumbered in a given
+ * order and its edges kept in compressed arrays: the edges leaving node i
+ * are firstEdges[i] up to firstEdges[i + 1], to edgeNodes[e] at a cost of
+ * edgeCosts[e]. With the nodes in an order from NodeOrdering, the edges of
+ * nearby nodes are next to each other in the arrays too. Searches by node
+ * number, such as OffHeapPathFinder's, read the edges by edge number with
+ * getFirstEdge(), getEdgeNode() and getEdgeCost(), rather than looking
+ * nodes up by GraphNode for every edge.
+ *
+ * <p> The nodes are the original GraphNode objects, so paths found in a
+ * CompactGraph are paths in the original graph, and getNode() maps a node
+ * number back to its GraphNode. Heuristic estimates are passed on to the
+ * original graph. The copy itself does not change once built, so it is as
+ * safe to search from several threads as the original graph's
+ * estimateCostToEnd() is; a ThreadSafeCompactGraph, which copies a
+ * ThreadSafeGraph, is a ThreadSafeGraph too.
+ *
+ * @author lweber
+ *
+ * @see NodeOrdering
+ * @see ThreadSafeCompactGraph
+ */
+public class CompactGraph implements IndexedGraph {
+	
+	private final Graph graph;
+	private final GraphNode[] nodes;
+	private final Map<GraphNode, Integer> nodeIndexes;
+	private final int[] firstEdges;
+	private final int[] edgeNodes;
+	private final int[] edgeCosts;
+	
+	/**
+	 * Build a CompactGraph of the given nodes of a graph, in a given order.
+	 * Only edges between the given nodes are kept.
+	 *
+	 * @param graph - the original graph, which is asked for heuristic
+	 *  estimates.
+	 * @param nodes - the nodes to keep.
+	 * @param order - order[i] is the position in 'nodes' of the node to be
+	 *  numbered i, e.g. from NodeOrdering.
+	 */
+	public CompactGraph(Graph graph, List<? extends GraphNode> nodes, int[] order) {
+		int n = nodes.size();
+		if (order.length != n) {
+			throw new IllegalArgumentException("The order must have one entry per node.");
+		}
+		
+		this.graph = graph;
+		this.nodes = new GraphNode[n];
+		this.nodeIndexes = new HashMap<GraphNode, Integer>(n * 4 / 3 + 1);
+		for (int i = 0; i < n; i++) {
+			this.nodes[i] = nodes.get(order[i]);
+			if (nodeIndexes.put(this.nodes[i], Integer.valueOf(i)) != null) {
+				throw new IllegalArgumentException("The order must be a permutation of the nodes.");
+			}
+		}
+		
+		firstEdges = new int[n + 1];
+		int[] toNodes = new int[Math.max(16, n * 4)];
+		int[] costs = new int[toNodes.length];
+		int edges = 0;
+		
+		for (int i = 0; i < n; i++) {
+			firstEdges[i] = edges;
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(this.nodes[i]);
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				Integer j = nodeIndexes.get(neighborNode);
+				if (j == null) continue;
+				if (edges == toNodes.length) {
+					toNodes = Arrays.copyOf(toNodes, edges * 2);
+					costs = Arrays.copyOf(costs, edges * 2);
+				}
+				toNodes[edges] = j.intValue();
+				costs[edges] = graph.getCostToNeighbor(this.nodes[i], neighborNode);
+				edges++;
+			}
+		}
+		firstEdges[n] = edges;
+		
+		edgeNodes = Arrays.copyOf(toNodes, edges);
+		edgeCosts = Arrays.copyOf(costs, edges);
+	}
+	
+	/**
+	 * Get the average difference between the numbers of the two nodes of an
+	 * edge: a measure of how far apart in memory neighbors are.
+	 *
+	 * @return
+	 */
+	public double getAverageEdgeSpan() {
+		long sum = 0;
+		for (int i = 0; i < nodes.length; i++) {
+			for (int e = firstEdges[i]; e < firstEdges[i + 1]; e++) {
+				sum += Math.abs(edgeNodes[e] - i);
+			}
+		}
+		return edgeNodes.length == 0 ? 0 : (double) sum / edgeNodes.length;
+	}
+	
+	/**
+	 * Get the number of the first edge leaving a node. The edges leaving
+	 * node i are numbered from getFirstEdge(i) up to getFirstEdge(i + 1).
+	 *
+	 * @param index - a node number, or getNodeCount() for the end of the
+	 *  last node's edges.
+	 *
+	 * @return
+	 */
+	public int getFirstEdge(int index) {
+		return firstEdges[index];
+	}
+	
+	/**
+	 * Get the number of the node at the end of an edge.
+	 *
+	 * @param edge -
+	 *
+	 * @return
+	 */
+	public int getEdgeNode(int edge) {
+		return edgeNodes[edge];
+	}
+	
+	/**
+	 * Get the cost of an edge.
+	 *
+	 * @param edge -
+	 *
+	 * @return
+	 */
+	public int getEdgeCost(int edge) {
+		return edgeCosts[edge];
+	}
+	
+	public int getNodeCount() {
+		return nodes.length;
+	}
+	
+	public int getNodeIndex(GraphNode n) {
+		Integer i = nodeIndexes.get(n);
+		if (i == null) {
+			throw new IllegalArgumentException("The graph does not contain " + n.getNodeName());
+		}
+		return i.intValue();
+	}
+	
+	public GraphNode getNode(int index) {
+		return nodes[index];
+	}
+	
+	public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+		int i = getNodeIndex(n);
+		return new NeighborIterator(firstEdges[i], firstEdges[i + 1]);
+	}
+	
+	public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+		int i = getNodeIndex(n1);
+		int j = getNodeIndex(n2);
+		for (int e = firstEdges[i]; e < firstEdges[i + 1]; e++) {
+			if (edgeNodes[e] == j) {
+				return edgeCosts[e];
+			}
+		}
+		throw new IllegalArgumentException(
+				n2.getNodeName() + " is not a neighbor of " + n1.getNodeName());
+	}
+	
+	public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+		return graph.estimateCostToEnd(startNode, endNode);
+	}
+	
+	/**
+	 * Iterates over the nodes at the ends of a range of edges.
+	 */
+	class NeighborIterator implements Iterator<GraphNode> {
+		
+		private int e;
+		private final int end;
+		
+		NeighborIterator(int first, int end) {
+			this.e = first;
+			this.end = end;
+		}
+		
+		public boolean hasNext() {
+			return e < end;
+		}
+		
+		public GraphNode next() {
+			if (e >= end) {
+				throw new NoSuchElementException();
+			}
+			return nodes[edgeNodes[e++]];
+		}
+		
+	}
+	
+}
@@ -0,0 +1,27 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Interface for a numbered graph whose nodes have coordinates, and whose
+ * heuristic is the straight line distance between them.
+ *
+ * <p> estimateCostToEnd() must return the same value as
+ * getNodeCoordinates().estimateCost() for the two nodes' numbers. A search
+ * for one end node then uses a CoordinateHeuristic, which estimates the
+ * cost from the NodeCoordinates by node number rather than calling
+ * estimateCostToEnd().
+ *
+ * @author lweber
+ */
+public interface CoordinateGraph extends IndexedGraph {
+	
+	/**
+	 * Get the coordinates of the graph's nodes.
+	 *
+	 * @return
+	 */
+	NodeCoordinates getNodeCoordinates();
+	
+}
@@ -0,0 +1,29 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * The heuristic for a search of a CoordinateGraph for one end node, which
+ * estimates the cost from the node coordinates by node number, without
+ * calling Graph.estimateCostToEnd().
+ *
+ * @author lweber
+ */
+class CoordinateHeuristic implements Heuristic {
+	
+	private final CoordinateGraph graph;
+	private final NodeCoordinates coordinates;
+	private final int end;
+	
+	CoordinateHeuristic(GraphNode endNode, CoordinateGraph graph) {
+		this.graph = graph;
+		this.coordinates = graph.getNodeCoordinates();
+		this.end = graph.getNodeIndex(endNode);
+	}
+	
+	public int estimateCost(GraphNode n) {
+		return coordinates.estimateCost(graph.getNodeIndex(n), end);
+	}
+	
+}
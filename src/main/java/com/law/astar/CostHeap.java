@@ -0,0 +1,79 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.Arrays;
+
+/**
+ * An open list for searches over node numbers: a binary heap of longs, each
+ * a cost in the high half and a node number in the low half, so entries
+ * sort by cost and then by node number with no objects per entry. A node
+ * may be in the heap more than once; the search decides which entry
+ * counts, usually the one with the lowest cost.
+ *
+ * @author lweber
+ */
+class CostHeap {
+	
+	private long[] heap = new long[64];
+	private int size;
+	
+	static int cost(long entry) {
+		return (int) (entry >>> 32);
+	}
+	
+	static int node(long entry) {
+		return (int) entry;
+	}
+	
+	boolean isEmpty() {
+		return size == 0;
+	}
+	
+	void clear() {
+		size = 0;
+	}
+	
+	void push(int cost, int node) {
+		if (size == heap.length) {
+			heap = Arrays.copyOf(heap, size * 2);
+		}
+		long entry = ((long) cost << 32) | (node & 0xffffffffL);
+		int pos = size++;
+		while (pos > 0) {
+			int parentPos = (pos - 1) >>> 1;
+			if (heap[parentPos] <= entry) break;
+			heap[pos] = heap[parentPos];
+			pos = parentPos;
+		}
+		heap[pos] = entry;
+	}
+	
+	/**
+	 * Get the lowest entry without removing it.
+	 */
+	long peek() {
+		return heap[0];
+	}
+	
+	/**
+	 * Remove and return the lowest entry.
+	 */
+	long pop() {
+		long result = heap[0];
+		long last = heap[--size];
+		int pos = 0;
+		int half = size >>> 1;
+		while (pos < half) {
+			int child = 2 * pos + 1;
+			if (child + 1 < size && heap[child + 1] < heap[child]) child++;
+			if (heap[child] >= last) break;
+			heap[pos] = heap[child];
+			pos = child;
+		}
+		if (size > 0) heap[pos] = last;
+		return result;
+	}
+	
+}
@@ -0,0 +1,26 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Interface for a cheap, optimistic estimate of the cost to travel between
+ * neighbor nodes, used by the LazyPathFinder to put off calling an
+ * expensive Graph.getCostToNeighbor().
+ *
+ * @author lweber
+ */
+public interface EdgeCostBound {
+	
+	/**
+	 * Estimate the cost to travel from node n1 to neighbor node n2. The
+	 * estimate must never be more than Graph.getCostToNeighbor(n1, n2).
+	 *
+	 * @param n1 - The starting neighbor node.
+	 * @param n2 - The ending neighbor node.
+	 *
+	 * @return A lower bound on the travel cost: zero or greater.
+	 */
+	int estimateCostToNeighbor(GraphNode n1, GraphNode n2);
+	
+}
@@ -0,0 +1,108 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Methods for splitting a graph into cells, so that it may be spread over
+ * several shards and searched with a PartitionedGraph.
+ *
+ * @author lweber
+ */
+public class GraphPartitioner {
+	
+	/**
+	 * Split the given nodes of a graph into cells of at most 'maxCellSize'
+	 * nodes each. Cells are grown breadth first from a seed node, which
+	 * keeps them compact and so keeps the number of boundary nodes - nodes
+	 * with an edge to or from another cell - low. It does not guarantee the
+	 * fewest possible boundary nodes.
+	 *
+	 * @param graph -
+	 * @param nodes - All of the nodes of the graph.
+	 * @param maxCellSize - The most nodes in one cell.
+	 *
+	 * @return The cells, numbered from zero in the order of the list.
+	 */
+	static public List<Cell> partition(
+			Graph graph, Collection<? extends GraphNode> nodes, int maxCellSize) {
+		
+		if (maxCellSize < 1) {
+			throw new IllegalArgumentException("maxCellSize must be 1 or more: " + maxCellSize);
+		}
+		
+		Map<GraphNode, Integer> cellIds = new HashMap<GraphNode, Integer>(nodes.size() * 4 / 3 + 1);
+		List<Set<GraphNode>> cellNodes = new ArrayList<Set<GraphNode>>();
+		
+		for (GraphNode seed : nodes) {
+			if (cellIds.containsKey(seed)) continue;
+			
+			Integer cellId = Integer.valueOf(cellNodes.size());
+			Set<GraphNode> cell = new LinkedHashSet<GraphNode>();
+			cellNodes.add(cell);
+			
+			LinkedList<GraphNode> queue = new LinkedList<GraphNode>();
+			queue.add(seed);
+			cellIds.put(seed, cellId);
+			
+			while (!queue.isEmpty() && cell.size() < maxCellSize) {
+				GraphNode n = queue.removeFirst();
+				cell.add(n);
+				
+				Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(n);
+				while (neighborNodes.hasNext()) {
+					GraphNode neighborNode = neighborNodes.next();
+					if (!cellIds.containsKey(neighborNode)) {
+						cellIds.put(neighborNode, cellId);
+						queue.add(neighborNode);
+					}
+				}
+			}
+			
+			// Nodes queued but not taken are left for later cells.
+			for (GraphNode n : queue) {
+				cellIds.remove(n);
+			}
+		}
+		
+		// A node is a boundary node if it has an edge to another cell, or an
+		// edge from another cell.
+		List<Set<GraphNode>> boundaryNodes = new ArrayList<Set<GraphNode>>(cellNodes.size());
+		for (int i = 0; i < cellNodes.size(); i++) {
+			boundaryNodes.add(new LinkedHashSet<GraphNode>());
+		}
+		
+		for (int i = 0; i < cellNodes.size(); i++) {
+			for (GraphNode n : cellNodes.get(i)) {
+				Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(n);
+				while (neighborNodes.hasNext()) {
+					GraphNode neighborNode = neighborNodes.next();
+					Integer neighborCellId = cellIds.get(neighborNode);
+					if (neighborCellId != null && neighborCellId.intValue() != i) {
+						boundaryNodes.get(i).add(n);
+						boundaryNodes.get(neighborCellId.intValue()).add(neighborNode);
+					}
+				}
+			}
+		}
+		
+		List<Cell> cells = new ArrayList<Cell>(cellNodes.size());
+		for (int i = 0; i < cellNodes.size(); i++) {
+			cells.add(new Cell(i, graph, cellNodes.get(i),
+					new ArrayList<GraphNode>(boundaryNodes.get(i))));
+		}
+		
+		return cells;
+	}
+	
+}
@@ -0,0 +1,28 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Interface for a heuristic which estimates the travel cost from a node
+ * to the goal of a search. The goal may be a single end node or the
+ * nearest of a set of end nodes.
+ *
+ * <p> As with Graph.estimateCostToEnd(), the heuristic must never over
+ * estimate the cost for the search to be guaranteed to find the lowest
+ * cost path(s).
+ *
+ * @author lweber
+ */
+public interface Heuristic {
+	
+	/**
+	 * Estimate the travel cost from the given node to the goal.
+	 *
+	 * @param n - The node to estimate from.
+	 *
+	 * @return An estimated travel cost: zero or greater.
+	 */
+	int estimateCost(GraphNode n);
+	
+}
@@ -0,0 +1,133 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative long values, such as latencies in
+ * nanoseconds or node counts, in buckets whose upper bounds are powers of
+ * two: bucket 0 holds the value 0, and bucket i holds the values from
+ * 2^(i-1) up to 2^i - 1. Recording a value is a few atomic increments, so
+ * a histogram may be shared by any number of threads.
+ *
+ * @author lweber
+ */
+public class Histogram {
+	
+	// Bucket 0 holds 0, bucket 63 holds values from 2^62 up to Long.MAX_VALUE.
+	private static final int BUCKETS = 64;
+	
+	private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKETS);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong sum = new AtomicLong();
+	private final AtomicLong max = new AtomicLong();
+	
+	/**
+	 * Record a value. Negative values are recorded as 0.
+	 *
+	 * @param value -
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		}
+		bucketCounts.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		
+		long oldMax = max.get();
+		while (value > oldMax && !max.compareAndSet(oldMax, value)) {
+			oldMax = max.get();
+		}
+	}
+	
+	public long getCount() {
+		return count.get();
+	}
+	
+	public long getSum() {
+		return sum.get();
+	}
+	
+	public long getMax() {
+		return max.get();
+	}
+	
+	/**
+	 * Get the number of buckets.
+	 *
+	 * @return
+	 */
+	public int getBucketCount() {
+		return BUCKETS;
+	}
+	
+	/**
+	 * Get the number of values recorded in a bucket.
+	 *
+	 * @param bucket -
+	 *
+	 * @return
+	 */
+	public long getBucketValueCount(int bucket) {
+		return bucketCounts.get(bucket);
+	}
+	
+	/**
+	 * Get the largest value that falls in a bucket.
+	 *
+	 * @param bucket -
+	 *
+	 * @return
+	 */
+	public long getBucketUpperBound(int bucket) {
+		return bucket == BUCKETS - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+	}
+	
+	/**
+	 * Get an upper bound for a percentile of the recorded values: the upper
+	 * bound of the bucket that holds the percentile, or the largest value
+	 * recorded if that is lower.
+	 *
+	 * @param percentile - from 0 to 100.
+	 *
+	 * @return The bound, or 0 if no values have been recorded.
+	 */
+	public long getPercentile(double percentile) {
+		long total = count.get();
+		if (total == 0) {
+			return 0;
+		}
+		long rank = (long) Math.ceil(total * percentile / 100.0);
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++) {
+			seen += bucketCounts.get(i);
+			if (seen >= rank && seen > 0) {
+				return Math.min(getBucketUpperBound(i), max.get());
+			}
+		}
+		return max.get();
+	}
+	
+	/**
+	 * Forget all recorded values.
+	 */
+	public void reset() {
+		for (int i = 0; i < BUCKETS; i++) {
+			bucketCounts.set(i, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+	
+	@Override
+	public String toString() {
+		return "Count=" + getCount() + " Sum=" + getSum() + " Max=" + getMax() +
+			" P50=" + getPercentile(50) + " P99=" + getPercentile(99);
+	}
+	
+}
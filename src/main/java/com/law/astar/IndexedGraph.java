@@ -0,0 +1,40 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Interface for a graph whose nodes are numbered from zero up to the number
+ * of nodes in the graph. Searches may then keep their state in arrays
+ * indexed by node number rather than in collections of node objects.
+ *
+ * @author lweber
+ */
+public interface IndexedGraph extends Graph {
+	
+	/**
+	 * Get the number of nodes in the graph.
+	 *
+	 * @return
+	 */
+	int getNodeCount();
+	
+	/**
+	 * Get the index of a node in the graph.
+	 *
+	 * @param n -
+	 *
+	 * @return The node's index: zero or greater and less than getNodeCount().
+	 */
+	int getNodeIndex(GraphNode n);
+	
+	/**
+	 * Get the node with the given index.
+	 *
+	 * @param index - zero or greater and less than getNodeCount().
+	 *
+	 * @return
+	 */
+	GraphNode getNode(int index);
+	
+}
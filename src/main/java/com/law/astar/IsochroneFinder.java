@@ -0,0 +1,186 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+
+/**
+ * Finds the nodes of an IndexedGraph within each of several cost thresholds
+ * of one or more start nodes - isochrones - in a single search.
+ *
+ * <p> Calling PathFinder.findAllNodes() once per threshold searches the
+ * inner bands again for every outer one. Here one Dijkstra search runs out
+ * to the largest threshold. Nodes come off the open list in order of
+ * increasing cost, so when the lowest cost in the open list passes a
+ * threshold every node of that band has been reached; the band is then
+ * complete and is passed to a BandListener, if there is one, while the
+ * search goes on.
+ *
+ * <p> With several start nodes - depots, say - each node's cost is its
+ * cost from the nearest of them.
+ *
+ * <p> The search state is kept in arrays indexed by node number, which are
+ * reused by the next search without being cleared, as in
+ * OffHeapPathFinder. An IsochroneFinder is not thread safe; use one per
+ * thread.
+ *
+ * @author lweber
+ */
+public class IsochroneFinder {
+	
+	/**
+	 * The largest number of thresholds in one search.
+	 */
+	public static final int MAX_BANDS = 255;
+	
+	private int stamp = 0;
+	private int[] stamps = new int[0];
+	private int[] costs = new int[0];
+	
+	private final CostHeap openList = new CostHeap();
+	
+	/**
+	 * Find the nodes within each of several thresholds of a start node.
+	 *
+	 * @param startNode -
+	 * @param thresholds - Ascending costs, at most MAX_BANDS of them.
+	 * @param graph -
+	 *
+	 * @return
+	 */
+	public Isochrones findIsochrones(GraphNode startNode, int[] thresholds, IndexedGraph graph) {
+		
+		return findIsochrones(Collections.singleton(startNode), thresholds, graph, null);
+	}
+	
+	/**
+	 * Find the nodes within each of several thresholds of the nearest of a
+	 * set of start nodes, passing each band to a listener when it is
+	 * complete.
+	 *
+	 * @param startNodes - The start nodes, all at cost zero.
+	 * @param thresholds - Ascending costs, at most MAX_BANDS of them.
+	 * @param graph -
+	 * @param listener - Receives each band when it is complete, or null.
+	 *
+	 * @return
+	 */
+	public Isochrones findIsochrones(Collection<? extends GraphNode> startNodes, int[] thresholds,
+			IndexedGraph graph, BandListener listener) {
+		
+		checkThresholds(thresholds);
+		thresholds = thresholds.clone();
+		prepare(graph.getNodeCount());
+		
+		int maxDistance = thresholds[thresholds.length - 1];
+		int[] nodes = new int[64];
+		int nodeCount = 0;
+		int[] bandEnds = new int[thresholds.length];
+		byte[] nodeBands = new byte[graph.getNodeCount()];
+		int band = 0;
+		
+		for (GraphNode startNode : startNodes) {
+			reach(graph.getNodeIndex(startNode), 0);
+		}
+		
+		while (!openList.isEmpty()) {
+			long top = openList.pop();
+			int cost = CostHeap.cost(top);
+			int cur = CostHeap.node(top);
+			
+			// Skip entries for nodes since reached at a lower cost, or already
+			// settled from another entry at the same cost - a start node given
+			// twice, say. A settled node has its band.
+			if (cost > costs[cur] || nodeBands[cur] != 0) continue;
+			
+			// Every node within the threshold has been reached.
+			while (cost > thresholds[band]) {
+				bandEnds[band] = nodeCount;
+				completeBand(band, thresholds, nodes, bandEnds, listener);
+				band++;
+			}
+			
+			if (nodeCount == nodes.length) {
+				nodes = Arrays.copyOf(nodes, nodeCount * 2);
+			}
+			nodes[nodeCount++] = cur;
+			nodeBands[cur] = (byte) (band + 1);
+			
+			GraphNode curNode = graph.getNode(cur);
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(curNode);
+			
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				int n = graph.getNodeIndex(neighborNode);
+				int g = cost + graph.getCostToNeighbor(curNode, neighborNode);
+				
+				if (g <= maxDistance && (stamps[n] != stamp || g < costs[n])) {
+					reach(n, g);
+				}
+			}
+		}
+		
+		for (; band < thresholds.length; band++) {
+			bandEnds[band] = nodeCount;
+			completeBand(band, thresholds, nodes, bandEnds, listener);
+		}
+		
+		return new Isochrones(graph, thresholds, Arrays.copyOf(nodes, nodeCount), bandEnds, nodeBands);
+	}
+	
+	private static void checkThresholds(int[] thresholds) {
+		if (thresholds.length == 0 || thresholds.length > MAX_BANDS) {
+			throw new IllegalArgumentException(
+					"There must be from 1 to " + MAX_BANDS + " thresholds.");
+		}
+		for (int i = 0; i < thresholds.length; i++) {
+			if (thresholds[i] < 0 || (i > 0 && thresholds[i] <= thresholds[i - 1])) {
+				throw new IllegalArgumentException(
+						"Thresholds must be zero or greater and in ascending order.");
+			}
+		}
+	}
+	
+	private static void completeBand(int band, int[] thresholds, int[] nodes, int[] bandEnds,
+			BandListener listener) {
+		if (listener != null) {
+			int bandStart = band == 0 ? 0 : bandEnds[band - 1];
+			listener.bandCompleted(band, thresholds[band],
+					Arrays.copyOfRange(nodes, bandStart, bandEnds[band]));
+		}
+	}
+	
+	/**
+	 * Make the arrays large enough for the given number of nodes and start
+	 * a new search stamp.
+	 */
+	private void prepare(int nodeCount) {
+		if (nodeCount > stamps.length) {
+			stamps = new int[nodeCount];
+			costs = new int[nodeCount];
+			stamp = 0;
+		}
+		
+		if (++stamp == Integer.MAX_VALUE) {
+			// Start the stamps over rather than let them wrap around.
+			Arrays.fill(stamps, 0);
+			stamp = 1;
+		}
+		
+		openList.clear();
+	}
+	
+	/**
+	 * Record a node reached at a new lowest cost and add it to the open list.
+	 */
+	private void reach(int n, int cost) {
+		stamps[n] = stamp;
+		costs[n] = cost;
+		openList.push(cost, n);
+	}
+	
+}
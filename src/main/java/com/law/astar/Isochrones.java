@@ -0,0 +1,121 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The result of an isochrone search: the nodes of an IndexedGraph within
+ * each of a list of ascending cost thresholds of the start nodes, each
+ * tagged with the first band that reaches it.
+ *
+ * <p> The nodes are kept as node numbers in one array, in order of
+ * increasing cost, so each band is a range of that array. The band of each
+ * node is kept in a byte per node of the graph.
+ *
+ * @author lweber
+ *
+ * @see IsochroneFinder
+ */
+public class Isochrones {
+	
+	private final IndexedGraph graph;
+	private final int[] thresholds;
+	private final int[] nodes;
+	private final int[] bandEnds;
+	private final byte[] nodeBands;
+	
+	Isochrones(IndexedGraph graph, int[] thresholds, int[] nodes, int[] bandEnds, byte[] nodeBands) {
+		this.graph = graph;
+		this.thresholds = thresholds;
+		this.nodes = nodes;
+		this.bandEnds = bandEnds;
+		this.nodeBands = nodeBands;
+	}
+	
+	/**
+	 * Get the number of bands, one for each threshold.
+	 *
+	 * @return
+	 */
+	public int getBandCount() {
+		return thresholds.length;
+	}
+	
+	/**
+	 * Get a band's threshold: the highest cost of a node in the band.
+	 *
+	 * @param band -
+	 *
+	 * @return
+	 */
+	public int getThreshold(int band) {
+		return thresholds[band];
+	}
+	
+	/**
+	 * Get the number of nodes first reached in a band.
+	 *
+	 * @param band -
+	 *
+	 * @return
+	 */
+	public int getNodeCount(int band) {
+		return bandEnds[band] - (band == 0 ? 0 : bandEnds[band - 1]);
+	}
+	
+	/**
+	 * Get the numbers of the nodes first reached in a band, in order of
+	 * increasing cost.
+	 *
+	 * @param band -
+	 *
+	 * @return
+	 */
+	public int[] getNodes(int band) {
+		return Arrays.copyOfRange(nodes, band == 0 ? 0 : bandEnds[band - 1], bandEnds[band]);
+	}
+	
+	/**
+	 * Get all the nodes within a band's threshold, including those first
+	 * reached in earlier bands: the same nodes PathFinder.findAllNodes()
+	 * finds for the threshold.
+	 *
+	 * @param band -
+	 *
+	 * @return
+	 */
+	public Set<GraphNode> getNodesWithin(int band) {
+		Set<GraphNode> resultSet = new HashSet<GraphNode>(bandEnds[band] * 4 / 3 + 1);
+		for (int i = 0; i < bandEnds[band]; i++) {
+			resultSet.add(graph.getNode(nodes[i]));
+		}
+		return resultSet;
+	}
+	
+	/**
+	 * Get the first band that reaches a node.
+	 *
+	 * @param nodeIndex - The node's number.
+	 *
+	 * @return The band, or -1 if the node is beyond the last threshold.
+	 */
+	public int getBand(int nodeIndex) {
+		return (nodeBands[nodeIndex] & 0xff) - 1;
+	}
+	
+	/**
+	 * Get the first band that reaches a node.
+	 *
+	 * @param n -
+	 *
+	 * @return The band, or -1 if the node is beyond the last threshold.
+	 */
+	public int getBand(GraphNode n) {
+		return getBand(graph.getNodeIndex(n));
+	}
+	
+}
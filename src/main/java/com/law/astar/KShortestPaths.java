@@ -0,0 +1,410 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Methods for finding the k shortest loopless paths between two nodes of an
+ * IndexedGraph - alternative routes - using Yen's algorithm.
+ *
+ * <p> Each path after the first is found by taking a path already found,
+ * keeping it up to some node - the spur node - and searching from there to
+ * the end node for a spur path that leaves the spur node by an edge no
+ * path found so far with the same beginning has taken, and does not go
+ * back through the beginning. Rather than searching a wrapper Graph with
+ * those nodes and edges removed, the spur search skips them itself: the
+ * nodes of the beginning are marked in an array indexed by node number,
+ * and the removed edges, which all leave the spur node, are checked only
+ * when the spur node is expanded.
+ *
+ * <p> Work already done is not repeated: the cost of a path up to each of
+ * its nodes is kept with the path, so only the spur path is searched; a
+ * path is only spurred from the node where it left the path it was found
+ * from (Lawler's refinement), since spurs from earlier nodes were searched
+ * for that path already; and once enough candidate paths are known, spur
+ * searches stop at the cost of the worst candidate that could still be
+ * wanted. The spur searches for one path are independent of each other
+ * and may run in parallel.
+ *
+ * <p> Spur searches are A* searches guided by Graph.estimateCostToEnd(),
+ * which must be consistent, as for PathFinder.
+ *
+ * @author lweber
+ */
+public class KShortestPaths {
+	
+	/**
+	 * Find the k shortest loopless paths between two nodes.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param k - The maximum number of paths to find.
+	 * @param graph -
+	 *
+	 * @return A list of up to k paths, ordered from lowest to highest cost.
+	 */
+	static public List<PathResult> findShortestPaths(
+			GraphNode startNode, GraphNode endNode, int k, IndexedGraph graph) {
+		
+		return findShortestPaths(startNode, endNode, k, 1, graph);
+	}
+	
+	/**
+	 * Find the k shortest loopless paths between two nodes, running the spur
+	 * searches for each path on several threads. The graph must be a
+	 * ThreadSafeGraph if there is more than one thread.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param k - The maximum number of paths to find.
+	 * @param threads - The number of threads to search on.
+	 * @param graph -
+	 *
+	 * @return A list of up to k paths, ordered from lowest to highest cost.
+	 */
+	static public List<PathResult> findShortestPaths(GraphNode startNode, GraphNode endNode,
+			int k, int threads, IndexedGraph graph) {
+		
+		if (threads > 1 && !(graph instanceof ThreadSafeGraph)) {
+			throw new IllegalArgumentException(
+					"The graph must be a ThreadSafeGraph to search on more than one thread.");
+		}
+		
+		List<PathResult> resultList = new ArrayList<PathResult>();
+		if (k <= 0) {
+			return resultList;
+		}
+		
+		Heuristic heuristic = PathFinder.endNodeHeuristic(endNode, graph);
+		int end = graph.getNodeIndex(endNode);
+		ConcurrentLinkedQueue<SpurSearch> searches = new ConcurrentLinkedQueue<SpurSearch>();
+		
+		SpurSearch search = new SpurSearch(graph, heuristic);
+		searches.add(search);
+		Candidate startPath = new Candidate(
+				new int[] { graph.getNodeIndex(startNode) }, new int[] { 0 }, 0, 0);
+		Candidate first = search.run(startPath, 0, new int[0], end, Integer.MAX_VALUE);
+		if (first == null) {
+			return resultList;
+		}
+		
+		List<Candidate> paths = new ArrayList<Candidate>();
+		PriorityQueue<Candidate> candidates = new PriorityQueue<Candidate>(11, new Comparator<Candidate>() {
+			public int compare(Candidate c1, Candidate c2) {
+				if (c1.cost != c2.cost) {
+					return c1.cost < c2.cost ? -1 : 1;
+				}
+				return Integer.compare(c1.nodes.length, c2.nodes.length);
+			}
+		});
+		Set<List<Integer>> seen = new HashSet<List<Integer>>();
+		
+		paths.add(first);
+		seen.add(first.key());
+		
+		ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+		
+		try {
+			while (paths.size() < k) {
+				Candidate path = paths.get(paths.size() - 1);
+				int limit = getCostLimit(candidates, k - paths.size());
+				
+				List<Callable<Candidate>> tasks = new ArrayList<Callable<Candidate>>();
+				for (int i = path.deviation; i < path.nodes.length - 1; i++) {
+					tasks.add(spurTask(searches, graph, heuristic, paths, path, i, end, limit));
+				}
+				
+				for (Candidate candidate : runAll(executor, tasks)) {
+					if (candidate != null && seen.add(candidate.key())) {
+						candidates.add(candidate);
+					}
+				}
+				
+				if (candidates.isEmpty()) break;
+				paths.add(candidates.poll());
+			}
+		}
+		finally {
+			if (executor != null) {
+				executor.shutdown();
+			}
+		}
+		
+		for (Candidate path : paths) {
+			resultList.add(path.toPathResult(graph));
+		}
+		
+		return resultList;
+	}
+	
+	/**
+	 * Get the highest cost of a spur path still worth finding: no more than
+	 * the cost of the last of the candidates that may yet be wanted, if
+	 * there are enough candidates already.
+	 */
+	private static int getCostLimit(PriorityQueue<Candidate> candidates, int wanted) {
+		if (candidates.size() < wanted) {
+			return Integer.MAX_VALUE;
+		}
+		PriorityQueue<Candidate> copy = new PriorityQueue<Candidate>(candidates);
+		for (int i = 1; i < wanted; i++) {
+			copy.poll();
+		}
+		return copy.peek().cost;
+	}
+	
+	/**
+	 * Get a task that searches for the spur path from node i of a path.
+	 */
+	private static Callable<Candidate> spurTask(final ConcurrentLinkedQueue<SpurSearch> searches,
+			final IndexedGraph graph, final Heuristic heuristic, List<Candidate> paths,
+			final Candidate path, final int i, final int end, final int limit) {
+		
+		// The edges leaving the spur node taken by paths found so far that
+		// share this path's beginning.
+		int[] excluded = new int[paths.size()];
+		int excludedCount = 0;
+		for (Candidate p : paths) {
+			if (p.nodes.length > i + 1 && p.startsWith(path, i)) {
+				excluded[excludedCount++] = p.nodes[i + 1];
+			}
+		}
+		final int[] excludedNodes = Arrays.copyOf(excluded, excludedCount);
+		
+		return new Callable<Candidate>() {
+			public Candidate call() {
+				SpurSearch search = searches.poll();
+				if (search == null) {
+					search = new SpurSearch(graph, heuristic);
+				}
+				try {
+					return search.run(path, i, excludedNodes, end, limit);
+				}
+				finally {
+					searches.add(search);
+				}
+			}
+		};
+	}
+	
+	private static List<Candidate> runAll(ExecutorService executor, List<Callable<Candidate>> tasks) {
+		List<Candidate> resultList = new ArrayList<Candidate>(tasks.size());
+		try {
+			if (executor == null) {
+				for (Callable<Candidate> task : tasks) {
+					resultList.add(task.call());
+				}
+			}
+			else {
+				for (Future<Candidate> f : executor.invokeAll(tasks)) {
+					resultList.add(f.get());
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while searching for spur paths.", e);
+		}
+		catch (ExecutionException e) {
+			throw new IllegalStateException("Failed to search for a spur path.", e.getCause());
+		}
+		catch (Exception e) {
+			throw new IllegalStateException("Failed to search for a spur path.", e);
+		}
+		return resultList;
+	}
+	
+	/**
+	 * A path found, or a candidate to be the next path: its node numbers,
+	 * the cost up to each of its nodes, and the index of the node at which
+	 * it left the path it was found from.
+	 */
+	static class Candidate {
+		
+		final int[] nodes;
+		final int[] costs;
+		final int cost;
+		final int deviation;
+		
+		Candidate(int[] nodes, int[] costs, int cost, int deviation) {
+			this.nodes = nodes;
+			this.costs = costs;
+			this.cost = cost;
+			this.deviation = deviation;
+		}
+		
+		/**
+		 * Whether this path's first i + 1 nodes are the same as another's.
+		 */
+		boolean startsWith(Candidate path, int i) {
+			for (int j = i; j >= 0; j--) {
+				if (nodes[j] != path.nodes[j]) return false;
+			}
+			return true;
+		}
+		
+		List<Integer> key() {
+			List<Integer> key = new ArrayList<Integer>(nodes.length);
+			for (int n : nodes) {
+				key.add(Integer.valueOf(n));
+			}
+			return key;
+		}
+		
+		PathResult toPathResult(IndexedGraph graph) {
+			List<GraphNode> pathNodes = new ArrayList<GraphNode>(nodes.length);
+			for (int n : nodes) {
+				pathNodes.add(graph.getNode(n));
+			}
+			return new PathResult(pathNodes, cost);
+		}
+		
+	}
+	
+	/**
+	 * A* search for spur paths, with its state kept in arrays indexed by node
+	 * number and reused, without clearing, by the next search, as in OffHeapPathFinder.
+	 * Not thread safe; each thread uses its own.
+	 */
+	static class SpurSearch {
+		
+		private final IndexedGraph graph;
+		private final Heuristic heuristic;
+		
+		private int stamp = 0;
+		private final int[] stamps;
+		private final int[] closedStamps;
+		private final int[] maskStamps;
+		private final int[] gCosts;
+		private final int[] hCosts;
+		private final int[] parents;
+		private final CostHeap openList = new CostHeap();
+		
+		SpurSearch(IndexedGraph graph, Heuristic heuristic) {
+			this.graph = graph;
+			this.heuristic = heuristic;
+			int n = graph.getNodeCount();
+			stamps = new int[n];
+			closedStamps = new int[n];
+			maskStamps = new int[n];
+			gCosts = new int[n];
+			hCosts = new int[n];
+			parents = new int[n];
+		}
+		
+		/**
+		 * Search for the spur path from node i of a path, not going through
+		 * the path's first i nodes nor along the excluded edges from node i.
+		 *
+		 * @return The path up to node i followed by the spur path, or null
+		 *  if there is no spur path within the cost limit.
+		 */
+		Candidate run(Candidate path, int i, int[] excludedNodes, int end, int limit) {
+			if (++stamp == Integer.MAX_VALUE) {
+				Arrays.fill(stamps, 0);
+				Arrays.fill(closedStamps, 0);
+				Arrays.fill(maskStamps, 0);
+				stamp = 1;
+			}
+			openList.clear();
+			
+			for (int j = 0; j < i; j++) {
+				maskStamps[path.nodes[j]] = stamp;
+			}
+			
+			int rootCost = path.costs[i];
+			int spur = path.nodes[i];
+			hCosts[spur] = heuristic.estimateCost(graph.getNode(spur));
+			reach(spur, -1, 0);
+			
+			while (!openList.isEmpty()) {
+				long top = openList.pop();
+				int cur = CostHeap.node(top);
+				
+				// Skip entries for nodes since reached at a lower cost.
+				if (closedStamps[cur] == stamp
+						|| CostHeap.cost(top) != gCosts[cur] + hCosts[cur]) continue;
+				
+				if (cur == end) {
+					return join(path, i, end, rootCost);
+				}
+				
+				closedStamps[cur] = stamp;
+				GraphNode curNode = graph.getNode(cur);
+				Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(curNode);
+				
+				while (neighborNodes.hasNext()) {
+					GraphNode neighborNode = neighborNodes.next();
+					int n = graph.getNodeIndex(neighborNode);
+					
+					if (closedStamps[n] == stamp || maskStamps[n] == stamp) continue;
+					if (cur == spur && contains(excludedNodes, n)) continue;
+					
+					int g = gCosts[cur] + graph.getCostToNeighbor(curNode, neighborNode);
+					if (rootCost + (long) g > limit) continue;
+					
+					if (stamps[n] != stamp) {
+						hCosts[n] = heuristic.estimateCost(neighborNode);
+						reach(n, cur, g);
+					}
+					else if (g < gCosts[n]) {
+						reach(n, cur, g);
+					}
+				}
+			}
+			
+			return null;
+		}
+		
+		private void reach(int n, int parent, int g) {
+			stamps[n] = stamp;
+			gCosts[n] = g;
+			parents[n] = parent;
+			openList.push(g + hCosts[n], n);
+		}
+		
+		private static boolean contains(int[] a, int v) {
+			for (int x : a) {
+				if (x == v) return true;
+			}
+			return false;
+		}
+		
+		/**
+		 * Join the path up to node i with the spur path found to the end node.
+		 */
+		private Candidate join(Candidate path, int i, int end, int rootCost) {
+			int spurLength = 0;
+			for (int n = end; n >= 0; n = parents[n]) {
+				spurLength++;
+			}
+			
+			int length = i + spurLength;
+			int[] nodes = Arrays.copyOf(path.nodes, length);
+			int[] costs = Arrays.copyOf(path.costs, length);
+			for (int n = end, j = length - 1; n >= 0; n = parents[n], j--) {
+				nodes[j] = n;
+				costs[j] = rootCost + gCosts[n];
+			}
+			
+			return new Candidate(nodes, costs, costs[length - 1], i);
+		}
+		
+	}
+	
+}
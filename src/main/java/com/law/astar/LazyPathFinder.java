@@ -0,0 +1,243 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Methods for finding paths in a graph whose getCostToNeighbor() is
+ * expensive, using the Lazy Weighted A* search algorithm.
+ *
+ * <p> PathFinder calls getCostToNeighbor() for every neighbor it generates,
+ * though most of those neighbors are never expanded. Here a neighbor is
+ * put in the open list with an optimistic G cost, using a cheap lower bound
+ * for the edge cost, and the real edge cost is only asked for when the
+ * neighbor comes off the open list. If the real cost is higher the
+ * neighbor goes back in the open list with its real G cost. The same node
+ * may be in the open list once for each parent it was reached from, so no
+ * path is dropped on the strength of an estimate.
+ *
+ * <p> Unless another bound is given, the lower bound for an edge is
+ * Graph.estimateCostToEnd(n1, n2), which never over estimates the cost of
+ * a path from n1 to n2, and so never over estimates the edge between them.
+ *
+ * @author lweber
+ */
+public class LazyPathFinder {
+	
+	/**
+	 * Find and return the shortest path between two nodes using the Lazy
+	 * Weighted A* search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param graph -
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	static public List<GraphNode> findShortestPath(GraphNode startNode, GraphNode endNode, Graph graph) {
+		
+		return findShortestPath(startNode, endNode, null, graph, null);
+	}
+	
+	/**
+	 * Find and return the shortest path between two nodes using the Lazy
+	 * Weighted A* search algorithm, with a given lower bound for edge costs,
+	 * recording the number of edge cost evaluations made and avoided.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param bound - The lower bound for edge costs, or null to use
+	 *  Graph.estimateCostToEnd().
+	 * @param graph -
+	 * @param stats - Filled in by the search, or null.
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	static public List<GraphNode> findShortestPath(GraphNode startNode, GraphNode endNode,
+			EdgeCostBound bound, Graph graph, SearchStatistics stats) {
+		
+		PathResult result = lazyAStar(startNode, endNode, bound, graph, stats);
+		return result == null ? null : result.getNodes();
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from a given start node to a given
+	 * end node in a graph using the Lazy Weighted A* search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param graph -
+	 *
+	 * @return The cost from startNode to endNode, or -1 if no path exists.
+	 */
+	static public int findLowestPathCost(GraphNode startNode, GraphNode endNode, Graph graph) {
+		
+		PathResult result = lazyAStar(startNode, endNode, null, graph, null);
+		return result == null ? -1 : result.getCost();
+	}
+	
+	/**
+	 * Lazy Weighted A* path finding algorithm.
+	 *
+	 * @param startNode - Starting node for the search.
+	 * @param endNode - End node.
+	 * @param bound - The lower bound for edge costs, or null.
+	 * @param graph - The graph containing the nodes.
+	 * @param stats - Filled in by the search, or null.
+	 *
+	 * @return The path, or null if a path was not found.
+	 */
+	static PathResult lazyAStar(GraphNode startNode, GraphNode endNode,
+			EdgeCostBound bound, Graph graph, SearchStatistics stats) {
+		
+		if (bound == null) {
+			bound = graphEdgeCostBound(graph);
+		}
+		
+		Heuristic heuristic = PathFinder.endNodeHeuristic(endNode, graph);
+		
+		PriorityQueue<Entry> openList = new PriorityQueue<Entry>();
+		Map<GraphNode, Entry> closedSet = new HashMap<GraphNode, Entry>();
+		
+		// Lowest real G cost found so far for each node in the open list.
+		// Estimates that are no better are not worth evaluating.
+		Map<GraphNode, Integer> bestG = new HashMap<GraphNode, Integer>();
+		
+		openList.add(new Entry(startNode, null, 0, heuristic.estimateCost(startNode), true));
+		bestG.put(startNode, Integer.valueOf(0));
+		
+		while (!openList.isEmpty()) {
+			Entry curEntry = openList.poll();
+			
+			// Already expanded by way of a better path.
+			if (closedSet.containsKey(curEntry.graphNode)) continue;
+			
+			if (!curEntry.isCostReal) {
+				// Evaluate the real cost of the edge from the parent.
+				if (stats != null) stats.costEvaluated();
+				int g = curEntry.parent.g + graph.getCostToNeighbor(
+						curEntry.parent.graphNode, curEntry.graphNode);
+				
+				Integer best = bestG.get(curEntry.graphNode);
+				if (best != null && best.intValue() <= g) continue;
+				bestG.put(curEntry.graphNode, Integer.valueOf(g));
+				
+				Entry realEntry = new Entry(curEntry.graphNode, curEntry.parent, g,
+						curEntry.f - curEntry.g, true);
+				
+				// If the estimate was exact the node is still the lowest F cost
+				// node and may be expanded now, otherwise it goes back in line.
+				if (g > curEntry.g) {
+					openList.add(realEntry);
+					continue;
+				}
+				curEntry = realEntry;
+			}
+			
+			// Path is found when the end node would be added to the closed set.
+			if (curEntry.graphNode.equals(endNode)) {
+				return new PathResult(curEntry.getNodes(), curEntry.g);
+			}
+			
+			closedSet.put(curEntry.graphNode, curEntry);
+			bestG.remove(curEntry.graphNode);
+			if (stats != null) stats.nodeExpanded();
+			
+			Iterator<? extends GraphNode> neighborNodes =
+					graph.getNeighborNodes(curEntry.graphNode);
+			
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				
+				// If it is in the closed set it has already been eliminated.
+				if (closedSet.containsKey(neighborNode)) continue;
+				
+				if (stats != null) stats.nodeGenerated();
+				
+				int g = curEntry.g + bound.estimateCostToNeighbor(curEntry.graphNode, neighborNode);
+				
+				Integer best = bestG.get(neighborNode);
+				if (best != null && best.intValue() <= g) continue;
+				
+				openList.add(new Entry(neighborNode, curEntry, g,
+						heuristic.estimateCost(neighborNode), false));
+			}
+			
+			if (stats != null) stats.setStoredNodes(openList.size() + closedSet.size());
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Get an edge cost bound that uses Graph.estimateCostToEnd().
+	 *
+	 * @param graph -
+	 *
+	 * @return
+	 */
+	static EdgeCostBound graphEdgeCostBound(final Graph graph) {
+		return new EdgeCostBound() {
+			public int estimateCostToNeighbor(GraphNode n1, GraphNode n2) {
+				return graph.estimateCostToEnd(n1, n2);
+			}
+		};
+	}
+	
+	/**
+	 * An open list entry: a node reached from a given parent, with either
+	 * its real G cost or an optimistic estimate of it.
+	 */
+	static class Entry implements Comparable<Entry> {
+		
+		final GraphNode graphNode;
+		final Entry parent;
+		final int g;
+		final int f;
+		final boolean isCostReal;
+		
+		Entry(GraphNode gn, Entry parent, int g, int h, boolean isCostReal) {
+			this.graphNode = gn;
+			this.parent = parent;
+			this.g = g;
+			this.f = g + h;
+			this.isCostReal = isCostReal;
+		}
+		
+		List<GraphNode> getNodes() {
+			LinkedList<GraphNode> resultList = new LinkedList<GraphNode>();
+			Entry e = this;
+			while (e != null) {
+				resultList.addFirst(e.graphNode);
+				e = e.parent;
+			}
+			return resultList;
+		}
+		
+		/**
+		 * Entries are sorted by F cost. When F costs tie, entries with real
+		 * costs come first so that an estimate is not evaluated if a real
+		 * path of the same cost is already known.
+		 */
+		public int compareTo(Entry e) {
+			if (f != e.f) {
+				return f < e.f ? -1 : 1;
+			}
+			if (isCostReal != e.isCostReal) {
+				return isCostReal ? -1 : 1;
+			}
+			return 0;
+		}
+		
+	}
+	
+}
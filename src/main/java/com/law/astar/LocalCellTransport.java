@@ -0,0 +1,61 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A CellTransport for cells held in the same process as the
+ * PartitionedGraph - for tests, and for graphs small enough that they
+ * need not be spread over several processes.
+ *
+ * @author lweber
+ */
+public class LocalCellTransport implements CellTransport {
+	
+	private final List<Cell> cells;
+	private final Map<GraphNode, Integer> cellIds = new HashMap<GraphNode, Integer>();
+	
+	/**
+	 * Construct a new LocalCellTransport for the given cells.
+	 *
+	 * @param cells - the cells, numbered from zero in the order of the list.
+	 */
+	public LocalCellTransport(List<Cell> cells) {
+		this.cells = cells;
+		for (Cell cell : cells) {
+			for (GraphNode n : cell.getNodes()) {
+				cellIds.put(n, Integer.valueOf(cell.getCellId()));
+			}
+		}
+	}
+	
+	public int getCellCount() {
+		return cells.size();
+	}
+	
+	public int getCellId(GraphNode n) {
+		Integer cellId = cellIds.get(n);
+		return cellId == null ? -1 : cellId.intValue();
+	}
+	
+	public CellSummary getCellSummary(int cellId) {
+		return cells.get(cellId).getSummary();
+	}
+	
+	public int[] getCostsToBoundary(int cellId, GraphNode from) {
+		return cells.get(cellId).getCostsToBoundary(from);
+	}
+	
+	public int[] getCostsFromBoundary(int cellId, GraphNode to) {
+		return cells.get(cellId).getCostsFromBoundary(to);
+	}
+	
+	public PathResult findPathInCell(int cellId, GraphNode from, GraphNode to) {
+		return cells.get(cellId).findPath(from, to);
+	}
+	
+}
@@ -0,0 +1,186 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Methods for ordering the nodes of a graph so that nodes near each other in
+ * the graph are near each other in the order, for use with CompactGraph.
+ * When a search's state is kept in arrays indexed by node number, as in
+ * OffHeapPathFinder, the neighbors of a node are then usually in the same
+ * or nearby cache lines as the node itself, rather than anywhere in memory.
+ *
+ * <p> Each method returns an order: a permutation of the positions of the
+ * nodes in the given list, so that order[i] is the position of the node
+ * that is to be numbered i.
+ *
+ * @author lweber
+ *
+ * @see CompactGraph
+ */
+public class NodeOrdering {
+	
+	// Bits per coordinate of the Hilbert curve's grid. Distances along the
+	// curve take twice as many bits, which must stay below 31 so that they
+	// sort as positive numbers in the top half of a long.
+	private static final int HILBERT_ORDER = 15;
+	
+	/**
+	 * Order nodes by a breadth first traversal of the graph (the Cuthill-McKee
+	 * ordering): each connected part of the graph is traversed from one of
+	 * its nodes with the fewest neighbors, and the new neighbors of each node
+	 * are visited in order of their number of neighbors. Only edges between
+	 * the given nodes are followed.
+	 *
+	 * @param graph -
+	 * @param nodes - The nodes to order.
+	 *
+	 * @return The order.
+	 */
+	static public int[] breadthFirst(Graph graph, List<? extends GraphNode> nodes) {
+		int n = nodes.size();
+		
+		Map<GraphNode, Integer> positions = new HashMap<GraphNode, Integer>(n * 4 / 3 + 1);
+		for (int i = 0; i < n; i++) {
+			positions.put(nodes.get(i), Integer.valueOf(i));
+		}
+		
+		// The edges between the nodes, in compressed arrays.
+		int[] firstEdges = new int[n + 1];
+		int[] edgeNodes = new int[Math.max(16, n * 4)];
+		int edges = 0;
+		for (int i = 0; i < n; i++) {
+			firstEdges[i] = edges;
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(nodes.get(i));
+			while (neighborNodes.hasNext()) {
+				Integer j = positions.get(neighborNodes.next());
+				if (j == null) continue;
+				if (edges == edgeNodes.length) {
+					edgeNodes = Arrays.copyOf(edgeNodes, edges * 2);
+				}
+				edgeNodes[edges++] = j.intValue();
+			}
+		}
+		firstEdges[n] = edges;
+		
+		// Start points, by number of neighbors: (degree << 32) | position.
+		long[] starts = new long[n];
+		for (int i = 0; i < n; i++) {
+			starts[i] = ((long) (firstEdges[i + 1] - firstEdges[i]) << 32) | i;
+		}
+		Arrays.sort(starts);
+		
+		int[] order = new int[n];
+		boolean[] isVisited = new boolean[n];
+		int head = 0;
+		int tail = 0;
+		long[] newNeighbors = new long[16];
+		
+		for (long start : starts) {
+			int s = (int) start;
+			if (isVisited[s]) continue;
+			isVisited[s] = true;
+			order[tail++] = s;
+			
+			// The order doubles as the breadth first queue.
+			while (head < tail) {
+				int cur = order[head++];
+				int count = 0;
+				for (int e = firstEdges[cur]; e < firstEdges[cur + 1]; e++) {
+					int j = edgeNodes[e];
+					if (isVisited[j]) continue;
+					isVisited[j] = true;
+					if (count == newNeighbors.length) {
+						newNeighbors = Arrays.copyOf(newNeighbors, count * 2);
+					}
+					newNeighbors[count++] = ((long) (firstEdges[j + 1] - firstEdges[j]) << 32) | j;
+				}
+				Arrays.sort(newNeighbors, 0, count);
+				for (int k = 0; k < count; k++) {
+					order[tail++] = (int) newNeighbors[k];
+				}
+			}
+		}
+		
+		return order;
+	}
+	
+	/**
+	 * Order nodes along a Hilbert curve through their coordinates, which
+	 * keeps nodes that are near each other in the plane near each other in
+	 * the order. For geographic coordinates give longitudes as x and
+	 * latitudes as y.
+	 *
+	 * @param xs - The x coordinate of each node, by position.
+	 * @param ys - The y coordinate of each node, by position.
+	 *
+	 * @return The order.
+	 */
+	static public int[] hilbertCurve(double[] xs, double[] ys) {
+		int n = xs.length;
+		if (ys.length != n) {
+			throw new IllegalArgumentException("There must be as many x as y coordinates.");
+		}
+		
+		double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+		double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, xs[i]);
+			maxX = Math.max(maxX, xs[i]);
+			minY = Math.min(minY, ys[i]);
+			maxY = Math.max(maxY, ys[i]);
+		}
+		
+		// Scale both axes alike, so the curve's grid cells are square.
+		int side = 1 << HILBERT_ORDER;
+		double scale = (side - 1) / Math.max(Math.max(maxX - minX, maxY - minY), Double.MIN_NORMAL);
+		
+		// Sort by (distance along the curve << 32) | position.
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			int x = (int) ((xs[i] - minX) * scale);
+			int y = (int) ((ys[i] - minY) * scale);
+			keys[i] = (hilbertDistance(x, y, side) << 32) | i;
+		}
+		Arrays.sort(keys);
+		
+		int[] order = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = (int) keys[i];
+		}
+		return order;
+	}
+	
+	/**
+	 * Get the distance along a Hilbert curve filling a square grid of the
+	 * given side, a power of two, to the cell at x, y.
+	 */
+	static long hilbertDistance(int x, int y, int side) {
+		long d = 0;
+		for (int s = side >>> 1; s > 0; s >>>= 1) {
+			int rx = (x & s) > 0 ? 1 : 0;
+			int ry = (y & s) > 0 ? 1 : 0;
+			d += (long) s * s * ((3 * rx) ^ ry);
+			
+			// Rotate the quadrant so the curve inside it starts and ends
+			// where the curve through the quadrants needs it to.
+			if (ry == 0) {
+				if (rx == 1) {
+					x = side - 1 - x;
+					y = side - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+		}
+		return d;
+	}
+	
+}
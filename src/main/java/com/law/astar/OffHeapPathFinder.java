@@ -0,0 +1,335 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Methods for finding paths in an IndexedGraph with the search state kept
+ * off the Java heap.
+ *
+ * <p> PathFinder keeps a PathNode, a TreeSet entry and a LinkedHashMap
+ * entry on the heap for every node it reaches, which for very large
+ * searches means a very large heap and long garbage collection pauses.
+ * An OffHeapPathFinder instead keeps the G and H costs, parent, open list
+ * position and closed state of each node, and the open list itself, in
+ * direct buffers indexed by node number. Only the result is built from
+ * Java objects, so the heap used by a search stays about the same however
+ * many nodes it reaches.
+ *
+ * <p> The buffers are allocated for the largest graph searched so far and
+ * are reused by the next search. Reuse does not require clearing them:
+ * each search has its own stamp, and a node's state only counts if it
+ * carries the current stamp. An OffHeapPathFinder is not thread safe; use
+ * one per thread.
+ *
+ * <p> A CompactGraph's edges are read by edge number, so expanding a node
+ * of one takes no GraphNode lookups.
+ *
+ * @author lweber
+ */
+public class OffHeapPathFinder {
+	
+	// Open list position of a node that has been moved to the closed set.
+	private static final int CLOSED = -1;
+	
+	private int capacity = 0;
+	private int stamp = 0;
+	
+	// Per node state, indexed by node number.
+	private IntBuffer stamps;
+	private IntBuffer gCosts;
+	private IntBuffer hCosts;
+	private IntBuffer parents;
+	private IntBuffer openPositions;
+	
+	// The open list, a binary heap of node numbers sorted by F cost.
+	private IntBuffer openList;
+	private int openSize;
+	
+	// Node numbers in the order they were moved to the closed set.
+	private IntBuffer closedList;
+	private int closedSize;
+	
+	/**
+	 * Find and return the shortest path between two nodes using the A*
+	 * search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param graph -
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	public List<GraphNode> findShortestPath(GraphNode startNode, GraphNode endNode, IndexedGraph graph) {
+		
+		int end = aStar(startNode, endNode, Integer.MAX_VALUE, graph);
+		return end < 0 ? null : getNodes(end, graph);
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from a given start node to a given
+	 * end node in a graph. Uses the A* search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param graph -
+	 *
+	 * @return The cost from startNode to endNode, or -1 if no path exists.
+	 */
+	public int findLowestPathCost(GraphNode startNode, GraphNode endNode, IndexedGraph graph) {
+		
+		int end = aStar(startNode, endNode, Integer.MAX_VALUE, graph);
+		return end < 0 ? -1 : gCosts.get(end);
+	}
+	
+	/**
+	 * Find all the nodes that are within a maximum distance from a given start
+	 * node in a graph. Note, the start node is included in the result.
+	 *
+	 * @param startNode -
+	 * @param maxDistance -
+	 * @param graph -
+	 *
+	 * @return A set of zero or more nodes from the graph.
+	 */
+	public Set<GraphNode> findAllNodes(GraphNode startNode, int maxDistance, IndexedGraph graph) {
+		
+		aStar(startNode, null, maxDistance, graph);
+		
+		Set<GraphNode> resultSet = new HashSet<GraphNode>(closedSize * 4 / 3 + 1);
+		
+		for (int i = 0; i < closedSize; i++) {
+			resultSet.add(graph.getNode(closedList.get(i)));
+		}
+		
+		return resultSet;
+	}
+	
+	/**
+	 * A* path finding algorithm over the off heap search state.
+	 *
+	 * @param startNode - Starting node for the search.
+	 * @param endNode - End node, or null if searching for a set of nodes.
+	 * @param maxDistance - Maximum distance (cost) of the closed nodes.
+	 * @param graph - The graph containing the nodes.
+	 *
+	 * @return The number of the end node, or -1 if there is no end node or
+	 *  it was not found. The closed nodes are left in closedList.
+	 */
+	int aStar(GraphNode startNode, GraphNode endNode, int maxDistance, IndexedGraph graph) {
+		
+		prepare(graph.getNodeCount());
+		
+		int end = endNode == null ? -1 : graph.getNodeIndex(endNode);
+		
+		reach(graph.getNodeIndex(startNode), -1, 0, estimate(startNode, endNode, graph));
+		
+		while (openSize > 0) {
+			
+			// Get the lowest F cost node in the open list.
+			int cur = openList.get(0);
+			
+			// Path is found when the end node would be added to the closed set.
+			if (cur == end) {
+				return cur;
+			}
+			
+			// Move the node to the closed set.
+			removeFirst();
+			openPositions.put(cur, CLOSED);
+			closedList.put(closedSize++, cur);
+			
+			int curG = gCosts.get(cur);
+			
+			if (graph instanceof CompactGraph) {
+				CompactGraph compact = (CompactGraph) graph;
+				
+				// For each edge leaving the current node.
+				int lastEdge = compact.getFirstEdge(cur + 1);
+				for (int e = compact.getFirstEdge(cur); e < lastEdge; e++) {
+					relax(cur, compact.getEdgeNode(e), null,
+							curG + compact.getEdgeCost(e), endNode, maxDistance, graph);
+				}
+				continue;
+			}
+			
+			GraphNode curNode = graph.getNode(cur);
+			
+			// For each node adjacent to the current node.
+			Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(curNode);
+			
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				int n = graph.getNodeIndex(neighborNode);
+				
+				// If it is in the closed set it has already been eliminated.
+				if (stamps.get(n) == stamp && openPositions.get(n) == CLOSED) continue;
+				
+				relax(cur, n, neighborNode,
+						curG + graph.getCostToNeighbor(curNode, neighborNode), endNode, maxDistance, graph);
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Reach a neighbor of the node being expanded over a path of cost 'g',
+	 * adding it to the open list or giving it a better path.
+	 *
+	 * @param cur - The number of the node being expanded.
+	 * @param n - The number of the neighbor.
+	 * @param neighborNode - The neighbor, or null to get it from the graph
+	 *  if it is needed.
+	 * @param g - The cost of the path to the neighbor through cur.
+	 * @param endNode - End node, or null if searching for a set of nodes.
+	 * @param maxDistance - Maximum distance (cost) of the closed nodes.
+	 * @param graph - The graph containing the nodes.
+	 */
+	private void relax(int cur, int n, GraphNode neighborNode, int g,
+			GraphNode endNode, int maxDistance, IndexedGraph graph) {
+		
+		if (stamps.get(n) != stamp) {
+			if (g <= maxDistance) {
+				if (neighborNode == null && endNode != null) {
+					neighborNode = graph.getNode(n);
+				}
+				reach(n, cur, g, estimate(neighborNode, endNode, graph));
+			}
+		}
+		else if (openPositions.get(n) != CLOSED && g < gCosts.get(n)) {
+			// A better path to a node in the open list.
+			gCosts.put(n, g);
+			parents.put(n, cur);
+			siftUp(openPositions.get(n));
+		}
+	}
+	
+	/**
+	 * Make the buffers large enough for the given number of nodes and start
+	 * a new search stamp.
+	 */
+	private void prepare(int nodeCount) {
+		if (nodeCount > capacity) {
+			capacity = nodeCount;
+			stamps = allocate(capacity);
+			gCosts = allocate(capacity);
+			hCosts = allocate(capacity);
+			parents = allocate(capacity);
+			openPositions = allocate(capacity);
+			openList = allocate(capacity);
+			closedList = allocate(capacity);
+			stamp = 0;
+		}
+		
+		if (++stamp == Integer.MAX_VALUE) {
+			// Start the stamps over rather than let them wrap around.
+			for (int i = 0; i < capacity; i++) {
+				stamps.put(i, 0);
+			}
+			stamp = 1;
+		}
+		
+		openSize = 0;
+		closedSize = 0;
+	}
+	
+	private static IntBuffer allocate(int size) {
+		return ByteBuffer.allocateDirect(size * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+	}
+	
+	private static int estimate(GraphNode n, GraphNode endNode, Graph graph) {
+		return endNode == null ? 0 : graph.estimateCostToEnd(n, endNode);
+	}
+	
+	/**
+	 * Record a node reached for the first time in this search and add it
+	 * to the open list.
+	 */
+	private void reach(int n, int parent, int g, int h) {
+		stamps.put(n, stamp);
+		gCosts.put(n, g);
+		hCosts.put(n, h);
+		parents.put(n, parent);
+		
+		openList.put(openSize, n);
+		openPositions.put(n, openSize);
+		siftUp(openSize++);
+	}
+	
+	private void removeFirst() {
+		int last = openList.get(--openSize);
+		if (openSize > 0) {
+			openList.put(0, last);
+			openPositions.put(last, 0);
+			siftDown(0);
+		}
+	}
+	
+	/**
+	 * Whether node n1 should come before node n2 in the open list: lower
+	 * F cost first, and then higher G cost, which is nearer the end.
+	 */
+	private boolean isBefore(int n1, int n2) {
+		int g1 = gCosts.get(n1);
+		int g2 = gCosts.get(n2);
+		int f1 = g1 + hCosts.get(n1);
+		int f2 = g2 + hCosts.get(n2);
+		return f1 < f2 || (f1 == f2 && g1 > g2);
+	}
+	
+	private void siftUp(int pos) {
+		int n = openList.get(pos);
+		while (pos > 0) {
+			int parentPos = (pos - 1) >>> 1;
+			int p = openList.get(parentPos);
+			if (!isBefore(n, p)) break;
+			openList.put(pos, p);
+			openPositions.put(p, pos);
+			pos = parentPos;
+		}
+		openList.put(pos, n);
+		openPositions.put(n, pos);
+	}
+	
+	private void siftDown(int pos) {
+		int n = openList.get(pos);
+		int half = openSize >>> 1;
+		while (pos < half) {
+			int childPos = 2 * pos + 1;
+			int child = openList.get(childPos);
+			if (childPos + 1 < openSize && isBefore(openList.get(childPos + 1), child)) {
+				child = openList.get(++childPos);
+			}
+			if (!isBefore(child, n)) break;
+			openList.put(pos, child);
+			openPositions.put(child, pos);
+			pos = childPos;
+		}
+		openList.put(pos, n);
+		openPositions.put(n, pos);
+	}
+	
+	/**
+	 * Get the nodes in the path ending at the given node, from the start
+	 * node to the given node.
+	 */
+	private List<GraphNode> getNodes(int end, IndexedGraph graph) {
+		LinkedList<GraphNode> resultList = new LinkedList<GraphNode>();
+		for (int n = end; n >= 0; n = parents.get(n)) {
+			resultList.addFirst(graph.getNode(n));
+		}
+		return resultList;
+	}
+	
+}
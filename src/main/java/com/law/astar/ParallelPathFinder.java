@@ -0,0 +1,355 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Methods for finding paths in a graph using several threads for a single
+ * search, with the HDA* (Hash Distributed A*) search algorithm.
+ *
+ * <p> Each node is owned by one worker thread, chosen by the node's hash
+ * code. A worker keeps the open list and G costs for its own nodes only,
+ * and when it generates a neighbor owned by another worker it sends the
+ * neighbor to that worker's lock-free queue. The workers share the cost of
+ * the best path found so far, and the search ends when no worker has a
+ * node that could lead to a better path and no node is in transit, so the
+ * path found is the shortest.
+ *
+ * <p> The graph must be a ThreadSafeGraph since all workers call it at once.
+ *
+ * @author lweber
+ */
+public class ParallelPathFinder {
+	
+	/**
+	 * Find and return the shortest path between two nodes using the HDA*
+	 * search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param threads - The number of worker threads.
+	 * @param graph -
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	static public List<GraphNode> findShortestPath(
+			GraphNode startNode, GraphNode endNode, int threads, ThreadSafeGraph graph) {
+		
+		PathResult result = hdaStar(startNode, endNode, threads, graph);
+		return result == null ? null : result.getNodes();
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from a given start node to a given
+	 * end node in a graph using the HDA* search algorithm.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 * @param threads - The number of worker threads.
+	 * @param graph -
+	 *
+	 * @return The cost from startNode to endNode, or -1 if no path exists.
+	 */
+	static public int findLowestPathCost(
+			GraphNode startNode, GraphNode endNode, int threads, ThreadSafeGraph graph) {
+		
+		PathResult result = hdaStar(startNode, endNode, threads, graph);
+		return result == null ? -1 : result.getCost();
+	}
+	
+	/**
+	 * HDA* path finding algorithm.
+	 *
+	 * @param startNode - Starting node for the search.
+	 * @param endNode - End node.
+	 * @param threads - The number of worker threads.
+	 * @param graph - The graph containing the nodes.
+	 *
+	 * @return The path, or null if a path was not found.
+	 */
+	static PathResult hdaStar(
+			GraphNode startNode, GraphNode endNode, int threads, ThreadSafeGraph graph) {
+		
+		if (threads < 1) {
+			throw new IllegalArgumentException("threads must be 1 or more: " + threads);
+		}
+		
+		Search search = new Search(endNode, threads, graph);
+		search.send(new Entry(startNode, null, 0, graph.estimateCostToEnd(startNode, endNode)));
+		
+		Thread[] workerThreads = new Thread[threads];
+		for (int i = 0; i < threads; i++) {
+			workerThreads[i] = new Thread(search.workers[i], "HDA*-worker-" + i);
+			workerThreads[i].setDaemon(true);
+			workerThreads[i].start();
+		}
+		
+		try {
+			for (Thread t : workerThreads) {
+				t.join();
+			}
+		}
+		catch (InterruptedException e) {
+			search.stop();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while searching.", e);
+		}
+		
+		search.rethrowFailure();
+		
+		Entry endEntry = search.bestEndEntry.get();
+		return endEntry == null ? null : new PathResult(endEntry.getNodes(), endEntry.g);
+	}
+	
+	/**
+	 * A node on a path, as sent between workers. Entries are immutable so
+	 * the parent chain may be read by any thread once an entry has been
+	 * received from a queue.
+	 */
+	static class Entry implements Comparable<Entry> {
+		
+		final GraphNode graphNode;
+		final Entry parent;
+		final int g;
+		final int f;
+		
+		Entry(GraphNode gn, Entry parent, int g, int h) {
+			this.graphNode = gn;
+			this.parent = parent;
+			this.g = g;
+			this.f = g + h;
+		}
+		
+		List<GraphNode> getNodes() {
+			LinkedList<GraphNode> resultList = new LinkedList<GraphNode>();
+			Entry e = this;
+			while (e != null) {
+				resultList.addFirst(e.graphNode);
+				e = e.parent;
+			}
+			return resultList;
+		}
+		
+		public int compareTo(Entry e) {
+			if (f != e.f) {
+				return f < e.f ? -1 : 1;
+			}
+			// Prefer deeper nodes when F costs tie, to reach the end sooner.
+			return g == e.g ? 0 : (g > e.g ? -1 : 1);
+		}
+		
+	}
+	
+	/**
+	 * State shared by the workers of one search.
+	 *
+	 * <p> Termination is detected with a single counter of outstanding work:
+	 * one for each entry sent but not yet received, plus one for each worker
+	 * that is busy. A worker counts itself busy before it counts off the
+	 * entry that woke it, so the counter cannot reach zero while there is
+	 * still work, and once it reaches zero it stays there.
+	 */
+	static class Search {
+		
+		final GraphNode endNode;
+		final ThreadSafeGraph graph;
+		final Worker[] workers;
+		
+		final AtomicInteger outstandingWork = new AtomicInteger(0);
+		final AtomicReference<Entry> bestEndEntry = new AtomicReference<Entry>();
+		final AtomicReference<RuntimeException> failure = new AtomicReference<RuntimeException>();
+		volatile boolean done = false;
+		
+		Search(GraphNode endNode, int threads, ThreadSafeGraph graph) {
+			this.endNode = endNode;
+			this.graph = graph;
+			workers = new Worker[threads];
+			for (int i = 0; i < threads; i++) {
+				workers[i] = new Worker(this);
+			}
+		}
+		
+		/**
+		 * Send an entry to the worker that owns its node.
+		 */
+		void send(Entry e) {
+			outstandingWork.incrementAndGet();
+			int hash = e.graphNode.hashCode();
+			hash ^= hash >>> 16;
+			workers[(hash & 0x7fffffff) % workers.length].inbox.add(e);
+		}
+		
+		/**
+		 * Get the cost of the best path to the end node found so far.
+		 */
+		int getUpperBound() {
+			Entry e = bestEndEntry.get();
+			return e == null ? Integer.MAX_VALUE : e.g;
+		}
+		
+		/**
+		 * Record a path to the end node if it is better than the best so far.
+		 */
+		void offerEndEntry(Entry e) {
+			Entry best = bestEndEntry.get();
+			while ((best == null || e.g < best.g) && !bestEndEntry.compareAndSet(best, e)) {
+				best = bestEndEntry.get();
+			}
+		}
+		
+		void stop() {
+			done = true;
+		}
+		
+		void fail(RuntimeException e) {
+			failure.compareAndSet(null, e);
+			stop();
+		}
+		
+		void rethrowFailure() {
+			RuntimeException e = failure.get();
+			if (e != null) {
+				throw e;
+			}
+		}
+		
+	}
+	
+	/**
+	 * A worker thread: owns a share of the nodes, with an open list of the
+	 * owned nodes that have yet to be expanded and the best G cost known for
+	 * each owned node.
+	 */
+	static class Worker implements Runnable {
+		
+		private final Search search;
+		
+		final ConcurrentLinkedQueue<Entry> inbox = new ConcurrentLinkedQueue<Entry>();
+		
+		private final PriorityQueue<Entry> openList = new PriorityQueue<Entry>();
+		private final Map<GraphNode, Integer> bestG = new HashMap<GraphNode, Integer>();
+		
+		private boolean busy = false;
+		
+		Worker(Search search) {
+			this.search = search;
+		}
+		
+		public void run() {
+			try {
+				while (!search.done) {
+					if (!step()) {
+						if (busy) {
+							busy = false;
+							if (search.outstandingWork.decrementAndGet() == 0) {
+								search.stop();
+							}
+						}
+						else {
+							LockSupport.parkNanos(1000L);
+						}
+					}
+				}
+			}
+			catch (RuntimeException e) {
+				search.fail(e);
+			}
+		}
+		
+		/**
+		 * Receive waiting entries, then expand the best open node.
+		 *
+		 * @return false if there was nothing to do.
+		 */
+		private boolean step() {
+			boolean worked = false;
+			
+			Entry received;
+			while ((received = inbox.poll()) != null) {
+				if (!busy) {
+					busy = true;
+					search.outstandingWork.incrementAndGet();
+				}
+				search.outstandingWork.decrementAndGet();
+				receive(received);
+				worked = true;
+			}
+			
+			int upperBound = search.getUpperBound();
+			
+			while (!openList.isEmpty()) {
+				Entry curEntry = openList.poll();
+				
+				// Skip entries that have since been reached by a better path
+				// and nodes that cannot lead to a better path to the end.
+				if (curEntry.g > bestG.get(curEntry.graphNode).intValue()) continue;
+				if (curEntry.f >= upperBound) {
+					openList.clear();
+					break;
+				}
+				
+				if (!busy) {
+					busy = true;
+					search.outstandingWork.incrementAndGet();
+				}
+				
+				if (curEntry.graphNode.equals(search.endNode)) {
+					search.offerEndEntry(curEntry);
+				}
+				else {
+					expand(curEntry);
+				}
+				return true;
+			}
+			
+			return worked;
+		}
+		
+		private void receive(Entry e) {
+			if (e.f >= search.getUpperBound()) return;
+			
+			Integer g = bestG.get(e.graphNode);
+			if (g != null && g.intValue() <= e.g) return;
+			
+			bestG.put(e.graphNode, Integer.valueOf(e.g));
+			openList.add(e);
+		}
+		
+		private void expand(Entry curEntry) {
+			ThreadSafeGraph graph = search.graph;
+			int upperBound = search.getUpperBound();
+			
+			Iterator<? extends GraphNode> neighborNodes =
+					graph.getNeighborNodes(curEntry.graphNode);
+			
+			while (neighborNodes.hasNext()) {
+				GraphNode neighborNode = neighborNodes.next();
+				
+				// Don't go straight back the way we came.
+				if (curEntry.parent != null && neighborNode.equals(curEntry.parent.graphNode)) continue;
+				
+				int g = curEntry.g + graph.getCostToNeighbor(curEntry.graphNode, neighborNode);
+				int h = graph.estimateCostToEnd(neighborNode, search.endNode);
+				
+				Entry neighborEntry = new Entry(neighborNode, curEntry, g, h);
+				if (neighborEntry.f < upperBound) {
+					search.send(neighborEntry);
+				}
+			}
+		}
+		
+	}
+	
+}
@@ -0,0 +1,271 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A graph that has been split into cells, each owned by a shard, searched
+ * through an overlay of the cells' boundary nodes.
+ *
+ * <p> The overlay holds only the summary of each cell - its boundary nodes,
+ * the lowest costs between them within the cell, and the edges leaving the
+ * cell - and never the cells' inner nodes. A query asks the shards of the
+ * start and end nodes' cells for the costs from the start node to its
+ * cell's boundary, and from the end node's cell boundary to the end node,
+ * then searches the overlay: an overlay node's neighbors are the other
+ * boundary nodes of its cell, at their in-cell cost, and the nodes across
+ * the edges leaving the cell. The overlay path is then refined into a full
+ * path by asking the owning shards for the path within each cell crossed.
+ *
+ * <p> When a cell's edge weights change, rebuild the Cell on its shard and
+ * then call rebuildCell() here; other cells are not affected. Queries may
+ * run on several threads at once, and alongside rebuildCell(): each query
+ * searches the summaries as they were when it started, which a rebuild
+ * replaces as a whole rather than changes in place.
+ *
+ * @author lweber
+ */
+public class PartitionedGraph {
+	
+	private final CellTransport transport;
+	
+	// The summaries as of the last rebuild of each cell, never changed once
+	// published.
+	private volatile Summaries summaries;
+	
+	/**
+	 * Construct a new PartitionedGraph, fetching each cell's summary.
+	 *
+	 * @param transport - reaches the shards that own the cells.
+	 */
+	public PartitionedGraph(CellTransport transport) {
+		this.transport = transport;
+		
+		CellSummary[] cellSummaries = new CellSummary[transport.getCellCount()];
+		Map<GraphNode, int[]> boundaryIndex = new HashMap<GraphNode, int[]>();
+		for (int i = 0; i < cellSummaries.length; i++) {
+			cellSummaries[i] = transport.getCellSummary(i);
+			addBoundaryNodes(boundaryIndex, i, cellSummaries[i]);
+		}
+		summaries = new Summaries(cellSummaries, boundaryIndex);
+	}
+	
+	/**
+	 * Fetch a cell's summary again, after its edge weights have changed and
+	 * its shard has rebuilt it.
+	 *
+	 * @param cellId -
+	 */
+	public synchronized void rebuildCell(int cellId) {
+		CellSummary[] cellSummaries = summaries.cellSummaries.clone();
+		Map<GraphNode, int[]> boundaryIndex = new HashMap<GraphNode, int[]>(summaries.boundaryIndex);
+		
+		for (GraphNode b : cellSummaries[cellId].getBoundaryNodes()) {
+			boundaryIndex.remove(b);
+		}
+		
+		cellSummaries[cellId] = transport.getCellSummary(cellId);
+		addBoundaryNodes(boundaryIndex, cellId, cellSummaries[cellId]);
+		summaries = new Summaries(cellSummaries, boundaryIndex);
+	}
+	
+	private static void addBoundaryNodes(Map<GraphNode, int[]> boundaryIndex,
+			int cellId, CellSummary summary) {
+		List<GraphNode> boundaryNodes = summary.getBoundaryNodes();
+		for (int i = 0; i < boundaryNodes.size(); i++) {
+			boundaryIndex.put(boundaryNodes.get(i), new int[] { cellId, i });
+		}
+	}
+	
+	/**
+	 * Find and return the shortest path between two nodes.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 *
+	 * @return A list of GraphNode objects ordered from startNode to endNode,
+	 *  or null if a path was not found.
+	 */
+	public List<GraphNode> findShortestPath(GraphNode startNode, GraphNode endNode) {
+		
+		OverlayGraph overlay = new OverlayGraph(startNode, endNode);
+		List<GraphNode> overlayPath = PathFinder.findShortestPath(startNode, endNode, overlay);
+		return overlayPath == null ? null : refine(overlayPath);
+	}
+	
+	/**
+	 * Get the lowest cost to traverse from a given start node to a given
+	 * end node.
+	 *
+	 * @param startNode -
+	 * @param endNode -
+	 *
+	 * @return The cost from startNode to endNode, or -1 if no path exists.
+	 */
+	public int findLowestPathCost(GraphNode startNode, GraphNode endNode) {
+		
+		OverlayGraph overlay = new OverlayGraph(startNode, endNode);
+		return PathFinder.findLowestPathCost(startNode, endNode, overlay);
+	}
+	
+	/**
+	 * Replace each step of an overlay path that stays within a cell by the
+	 * path the cell's shard finds within the cell. Steps between cells are
+	 * edges of the graph already.
+	 */
+	private List<GraphNode> refine(List<GraphNode> overlayPath) {
+		List<GraphNode> resultList = new ArrayList<GraphNode>();
+		resultList.add(overlayPath.get(0));
+		
+		for (int i = 1; i < overlayPath.size(); i++) {
+			GraphNode from = overlayPath.get(i - 1);
+			GraphNode to = overlayPath.get(i);
+			int fromCellId = transport.getCellId(from);
+			
+			if (fromCellId == transport.getCellId(to)) {
+				List<GraphNode> cellPath = transport.findPathInCell(fromCellId, from, to).getNodes();
+				resultList.addAll(cellPath.subList(1, cellPath.size()));
+			}
+			else {
+				resultList.add(to);
+			}
+		}
+		
+		return resultList;
+	}
+	
+	/**
+	 * The summaries of all cells at one time.
+	 */
+	static class Summaries {
+		
+		final CellSummary[] cellSummaries;
+		
+		// The cell and position, within its cell's summary, of each boundary node.
+		final Map<GraphNode, int[]> boundaryIndex;
+		
+		Summaries(CellSummary[] cellSummaries, Map<GraphNode, int[]> boundaryIndex) {
+			this.cellSummaries = cellSummaries;
+			this.boundaryIndex = boundaryIndex;
+		}
+		
+	}
+	
+	/**
+	 * The overlay searched for one query: the boundary nodes of all cells,
+	 * plus the query's start and end nodes.
+	 */
+	class OverlayGraph implements Graph {
+		
+		// The summaries when the query started.
+		private final Summaries summaries = PartitionedGraph.this.summaries;
+		
+		private final GraphNode startNode;
+		private final GraphNode endNode;
+		
+		// Costs within the start node's cell, and into the end node's cell.
+		private final int startCellId;
+		private final int[] costsFromStart;
+		private final int endCellId;
+		private final int[] costsToEnd;
+		private final int startToEndCost;
+		
+		// Neighbors of each overlay node reached so far, with their costs.
+		private final Map<GraphNode, Map<GraphNode, Integer>> neighborCosts =
+				new HashMap<GraphNode, Map<GraphNode, Integer>>();
+		
+		OverlayGraph(GraphNode startNode, GraphNode endNode) {
+			this.startNode = startNode;
+			this.endNode = endNode;
+			
+			startCellId = transport.getCellId(startNode);
+			endCellId = transport.getCellId(endNode);
+			
+			costsFromStart = startCellId < 0 ? new int[0] :
+					transport.getCostsToBoundary(startCellId, startNode);
+			costsToEnd = endCellId < 0 ? new int[0] :
+					transport.getCostsFromBoundary(endCellId, endNode);
+			
+			if (startCellId >= 0 && startCellId == endCellId) {
+				PathResult cellPath = transport.findPathInCell(startCellId, startNode, endNode);
+				startToEndCost = cellPath == null ? -1 : cellPath.getCost();
+			}
+			else {
+				startToEndCost = -1;
+			}
+		}
+		
+		private Map<GraphNode, Integer> getNeighborCosts(GraphNode n) {
+			Map<GraphNode, Integer> costs = neighborCosts.get(n);
+			if (costs != null) {
+				return costs;
+			}
+			
+			costs = new LinkedHashMap<GraphNode, Integer>();
+			
+			if (n.equals(startNode)) {
+				addCosts(costs, startCellId, costsFromStart);
+				if (startToEndCost >= 0) {
+					addCost(costs, endNode, startToEndCost);
+				}
+			}
+			
+			int[] index = summaries.boundaryIndex.get(n);
+			if (index != null) {
+				CellSummary summary = summaries.cellSummaries[index[0]];
+				addCosts(costs, index[0], summary.getBoundaryCosts()[index[1]]);
+				
+				List<GraphNode> exitNodes = summary.getExitNodes().get(index[1]);
+				int[] exitCosts = summary.getExitCosts()[index[1]];
+				for (int k = 0; k < exitNodes.size(); k++) {
+					addCost(costs, exitNodes.get(k), exitCosts[k]);
+				}
+				
+				if (index[0] == endCellId && costsToEnd[index[1]] >= 0) {
+					addCost(costs, endNode, costsToEnd[index[1]]);
+				}
+			}
+			
+			costs.remove(n);
+			neighborCosts.put(n, costs);
+			return costs;
+		}
+		
+		private void addCosts(Map<GraphNode, Integer> costs, int cellId, int[] boundaryCosts) {
+			List<GraphNode> boundaryNodes = summaries.cellSummaries[cellId].getBoundaryNodes();
+			for (int j = 0; j < boundaryCosts.length; j++) {
+				if (boundaryCosts[j] >= 0) {
+					addCost(costs, boundaryNodes.get(j), boundaryCosts[j]);
+				}
+			}
+		}
+		
+		private void addCost(Map<GraphNode, Integer> costs, GraphNode n, int cost) {
+			Integer oldCost = costs.get(n);
+			if (oldCost == null || cost < oldCost.intValue()) {
+				costs.put(n, Integer.valueOf(cost));
+			}
+		}
+		
+		public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+			return getNeighborCosts(n).keySet().iterator();
+		}
+		
+		public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+			return getNeighborCosts(n1).get(n2).intValue();
+		}
+		
+		public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+			return 0;
+		}
+		
+	}
+	
+}
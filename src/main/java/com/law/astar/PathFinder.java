@@ -3,6 +3,8 @@
  */
 package com.law.astar;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -28,8 +30,15 @@ public class PathFinder {
 	 */
 	static public List<GraphNode> findShortestPath(GraphNode startNode, GraphNode endNode, Graph graph) {
 		
-		Set<PathNode> pathSet = dijkstra(startNode, endNode, Integer.MAX_VALUE, graph);
-		return pathSet.size() == 1 ? pathSet.iterator().next().getNodes() : null;
+		SearchProbe probe = SearchProbe.begin(SearchMetrics.FIND_SHORTEST_PATH);
+		List<PathNode> pathList = dijkstra(
+				startNode, endNode, Integer.MAX_VALUE, graph, probe.getStatistics());
+		
+		probe.phase("collect");
+		List<GraphNode> result = pathList.size() == 1 ? pathList.get(0).getNodes() : null;
+		probe.end(pathList.size() == 1 ? pathList.get(0).getG() : -1, pathList.size());
+		
+		return result;
 	}
 	
 	/**
@@ -45,8 +54,14 @@ public class PathFinder {
 	 */
 	static public int findLowestPathCost(GraphNode startNode, GraphNode endNode, Graph graph) {
 		
-		Set<PathNode> pathSet = dijkstra(startNode, endNode, Integer.MAX_VALUE, graph);
-		return pathSet.size() == 1 ? pathSet.iterator().next().getG() : -1;
+		SearchProbe probe = SearchProbe.begin(SearchMetrics.FIND_LOWEST_PATH_COST);
+		List<PathNode> pathList = dijkstra(
+				startNode, endNode, Integer.MAX_VALUE, graph, probe.getStatistics());
+		
+		int result = pathList.size() == 1 ? pathList.get(0).getG() : -1;
+		probe.end(result, pathList.size());
+		
+		return result;
 	}
 	
 	/**
@@ -61,116 +76,306 @@ public class PathFinder {
 	 */
 	static public Set<GraphNode> findAllNodes(GraphNode startNode, int maxDistance, Graph graph) {
 		
-		Set<PathNode> pathSet = dijkstra(startNode, null, maxDistance, graph);
+		SearchProbe probe = SearchProbe.begin(SearchMetrics.FIND_ALL_NODES);
+		List<PathNode> pathList = dijkstra(startNode, null, maxDistance, graph, probe.getStatistics());
 		
-		Set<GraphNode> resultSet = new HashSet<GraphNode>(pathSet.size());
+		probe.phase("collect");
+		Set<GraphNode> resultSet = new HashSet<GraphNode>(pathList.size());
 		
-		for (PathNode pn : pathSet) {
+		for (PathNode pn : pathList) {
 			resultSet.add(pn.getGraphNode());
 		}
 		
+		probe.end(-1, resultSet.size());
+		
 		return resultSet;
 	}
 	
 	/**
-	 * A* path finding algorithm (a generalization of Dijkstra's algorithm).
+	 * Find the end node, out of a set of end nodes, that is nearest to (has
+	 * the lowest path cost from) a given start node, in a single search. The
+	 * search is guided by the minimum of Graph.estimateCostToEnd() over all
+	 * of the end nodes.
+	 * 
+	 * @param startNode - 
+	 * @param endNodes - The candidate end nodes.
+	 * @param graph - 
+	 * 
+	 * @return The path to the nearest end node, or null if no end node
+	 *  can be reached.
+	 */
+	static public PathResult findNearestNode(
+			GraphNode startNode, Set<? extends GraphNode> endNodes, Graph graph) {
+		
+		List<PathResult> resultList = findNearestNodes(startNode, endNodes, 1, graph);
+		return resultList.isEmpty() ? null : resultList.get(0);
+	}
+	
+	/**
+	 * Find the k end nodes, out of a set of end nodes, that are nearest to
+	 * a given start node, in a single search. The search is guided by the
+	 * minimum of Graph.estimateCostToEnd() over all of the end nodes.
+	 * 
+	 * @param startNode - 
+	 * @param endNodes - The candidate end nodes.
+	 * @param k - The maximum number of end nodes to find.
+	 * @param graph - 
+	 * 
+	 * @return A list of up to k paths, ordered from lowest to highest cost.
+	 */
+	static public List<PathResult> findNearestNodes(
+			GraphNode startNode, Set<? extends GraphNode> endNodes, int k, Graph graph) {
+		
+		return findNearestNodes(startNode, endNodes, k,
+				nearestEndNodeHeuristic(endNodes, graph), graph);
+	}
+	
+	/**
+	 * Find the k end nodes, out of a set of end nodes, that are nearest to
+	 * a given start node, in a single search guided by a given heuristic.
+	 * The heuristic must never over estimate the cost from a node to the
+	 * nearest end node - a precomputed lower bound, for instance - or the
+	 * nodes found may not be the nearest.
+	 * 
+	 * @param startNode - 
+	 * @param endNodes - The candidate end nodes.
+	 * @param k - The maximum number of end nodes to find.
+	 * @param heuristic - Estimates the cost to the nearest end node, or null
+	 *  to search without a heuristic.
+	 * @param graph - 
+	 * 
+	 * @return A list of up to k paths, ordered from lowest to highest cost.
+	 */
+	static public List<PathResult> findNearestNodes(GraphNode startNode,
+			Set<? extends GraphNode> endNodes, int k, Heuristic heuristic, Graph graph) {
+		
+		SearchProbe probe = SearchProbe.begin(SearchMetrics.FIND_NEAREST_NODES);
+		List<PathNode> pathList = dijkstra(startNode, endNodes, k, Integer.MAX_VALUE,
+				heuristic, graph, probe.getStatistics());
+		
+		probe.phase("collect");
+		List<PathResult> resultList = new ArrayList<PathResult>(pathList.size());
+		
+		for (PathNode pn : pathList) {
+			resultList.add(new PathResult(pn));
+		}
+		
+		probe.end(resultList.isEmpty() ? -1 : resultList.get(0).getCost(), resultList.size());
+		
+		return resultList;
+	}
+	
+	/**
+	 * A* path finding algorithm for a single end node, or for all nodes
+	 * within a maximum distance if there is no end node.
 	 * 
 	 * @param startNode - Starting node for the search.
 	 * @param endNode - End node, or null if searching for a set of nodes.
 	 * @param maxDistance - Maximum distance (cost) of the returned node(s).
 	 * @param graph - The graph containing the nodes.
+	 * @param stats - Counts the work done by the search, or null.
 	 * 
-	 * @return A set of zero or more path nodes - if 'endNode' is not null then
-	 *  the returned set will contain either zero or one path node.
+	 * @return A list of zero or more path nodes - if 'endNode' is not null
+	 *  then the returned list will contain either zero or one path node.
 	 */
-	static HashSet<PathNode> dijkstra(
-			GraphNode startNode, GraphNode endNode, int maxDistance, Graph graph) {
+	static List<PathNode> dijkstra(GraphNode startNode, GraphNode endNode,
+			int maxDistance, Graph graph, SearchStatistics stats) {
 		
-		PathNode startPathNode = new PathNode(startNode, null, graph);
-		PathNode endPathNode = endNode == null ? null : new PathNode(endNode, endNode, graph);
+		if (endNode == null) {
+			return dijkstra(startNode, null, 0, maxDistance, null, graph, stats);
+		}
+		
+		return dijkstra(startNode, Collections.singleton(endNode), 1, maxDistance,
+				endNodeHeuristic(endNode, graph), graph, stats);
+	}
+	
+	/**
+	 * A* path finding algorithm (a generalization of Dijkstra's algorithm).
+	 * 
+	 * <p> End nodes are found in order of increasing cost as long as the
+	 * heuristic is consistent - it never over estimates the cost to an end
+	 * node and never decreases by more than the cost of an edge.
+	 * 
+	 * @param startNode - Starting node for the search.
+	 * @param endNodes - End nodes, or null if searching for a set of nodes.
+	 * @param maxEndNodes - Number of end nodes after which the search stops.
+	 * @param maxDistance - Maximum distance (cost) of the returned node(s).
+	 * @param heuristic - Estimates the cost to the end node(s), or null.
+	 * @param graph - The graph containing the nodes.
+	 * @param stats - Counts the work done by the search, or null.
+	 * 
+	 * @return A list of zero or more path nodes. If 'endNodes' is not null
+	 *  the list contains up to 'maxEndNodes' path nodes for end nodes,
+	 *  ordered from lowest to highest cost. Otherwise it contains every node
+	 *  within 'maxDistance' of the start node.
+	 */
+	static List<PathNode> dijkstra(GraphNode startNode, Set<? extends GraphNode> endNodes,
+			int maxEndNodes, int maxDistance, Heuristic heuristic, Graph graph,
+			SearchStatistics stats) {
+		
+		PathNode startPathNode = new PathNode(startNode, heuristic, graph);
 		
 		PathNodeSet closedSet = new PathNodeSet(false);
 		PathNodeSet openSet = new PathNodeSet(true);
 		
+		List<PathNode> endList = new ArrayList<PathNode>();
+		
+		if (endNodes != null && (endNodes.isEmpty() || maxEndNodes <= 0)) {
+			return endList;
+		}
+		
 		// Add the starting node to the open set.
 		openSet.add(startPathNode);
 		
 		// As long as the open set is not empty the path may yet be found.
-		// When the endNode is found the path is found. If the open set
-		// becomes empty then there is no path.
+		// When enough end nodes are found the paths are found. If the open
+		// set becomes empty then there are no more paths.
 		while (openSet.size() > 0) {
 			
 			// Get the lowest F cost node in the open set.
 			PathNode curNode = openSet.getFirst();
 			
-			// Path is found when the end node would be added to the closed set.
-			if (endPathNode != null && curNode.equals(endPathNode)) {
-				HashSet<PathNode> resultSet = new HashSet<PathNode>(1);
-				resultSet.add(curNode);
-				return resultSet;
+			// A path is found when an end node would be added to the closed
+			// set. Keep going, through the end node, if more are wanted.
+			if (endNodes != null && endNodes.contains(curNode.getGraphNode())) {
+				endList.add(curNode);
+				if (endList.size() >= maxEndNodes) {
+					return endList;
+				}
 			}
 			
 			// Move the node to the closed set.
 			openSet.remove(curNode);
 			closedSet.add(curNode);
 			
-			// For each node adjacent to the current node.
-			Iterator<? extends GraphNode> neighborNodes =
-					graph.getNeighborNodes(curNode.getGraphNode());
-			
-			while (neighborNodes.hasNext()) {
-				GraphNode neighborNode = neighborNodes.next();
-				
-				// If it is in the closed set it has already been eliminated.
-				if (closedSet.contains(neighborNode)) continue;
-				
-				// No need to skip curNode's own parent because it is already
-				// in the closed set.
-				
-				PathNode openListNode = openSet.get(neighborNode);
-				
-				if (openListNode == null) {
-					// If the neighbor node isn't in the open set then put
-					// it there, making the current node its parent first
-					// so the F cost can be calculated correctly.
-					PathNode neighborPathNode = new PathNode(neighborNode, endNode, graph);
-					neighborPathNode.setParent(curNode);
-					
-					if (neighborPathNode.getG() <= maxDistance) {
-						openSet.add(neighborPathNode);
-					}
-				}
-				else {
-					// If the neighbor node is already in the open set then
-					// check to see if the current path to it is better (has
-					// a lower G cost) than the path leading to it now. If
-					// the current path is better then update the node's
-					// parent to add the node to the current path.
-					int costToNeighbor = graph.getCostToNeighbor(
-							curNode.getGraphNode(), neighborNode);
-					
-					if (costToNeighbor + curNode.getG() < openListNode.getG()) {
-						// Setting a new parent will clear the cached cost
-						// values for the PathNode. Remove the node from the
-						// set and add it again so that the set will be
-						// sorted correctly.
-						openSet.remove(openListNode);
-						openListNode.setParent(curNode);
-						openSet.add(openListNode);
-					}
-				}
-			}
+			expand(curNode, openSet, closedSet, maxDistance, heuristic, graph, stats);
+		}
+		
+		if (endNodes != null) {
+			return endList;
 		}
 		
 		// All nodes that make it into the closed set have a path within
 		// max distance of the start node.
-		HashSet<PathNode> resultSet = new HashSet<PathNode>(closedSet.size());
+		List<PathNode> resultList = new ArrayList<PathNode>(closedSet.size());
 		Iterator<PathNode> it = closedSet.iterator();
 		while (it.hasNext()) {
-			resultSet.add(it.next());
+			resultList.add(it.next());
 		}
 		
-		return resultSet;
+		return resultList;
+	}
+	
+	/**
+	 * Add or update, in the open set, each neighbor of a node that has just
+	 * been moved to the closed set.
+	 * 
+	 * @param curNode - The node being expanded.
+	 * @param openSet - 
+	 * @param closedSet - 
+	 * @param maxDistance - Maximum distance (cost) of a node in the open set.
+	 * @param heuristic - Estimates the cost to the end node(s), or null.
+	 * @param graph - The graph containing the nodes.
+	 * @param stats - Counts the work done by the search, or null.
+	 */
+	static void expand(PathNode curNode, PathNodeSet openSet, PathNodeSet closedSet,
+			int maxDistance, Heuristic heuristic, Graph graph, SearchStatistics stats) {
+		
+		if (stats != null) stats.nodeExpanded();
+		
+		// For each node adjacent to the current node.
+		Iterator<? extends GraphNode> neighborNodes =
+				graph.getNeighborNodes(curNode.getGraphNode());
+		
+		while (neighborNodes.hasNext()) {
+			GraphNode neighborNode = neighborNodes.next();
+			
+			// If it is in the closed set it has already been eliminated.
+			if (closedSet.contains(neighborNode)) continue;
+			
+			if (stats != null) stats.nodeGenerated();
+			
+			// No need to skip curNode's own parent because it is already
+			// in the closed set.
+			
+			PathNode openListNode = openSet.get(neighborNode);
+			
+			if (openListNode == null) {
+				// If the neighbor node isn't in the open set then put
+				// it there, making the current node its parent first
+				// so the F cost can be calculated correctly.
+				PathNode neighborPathNode = new PathNode(neighborNode, heuristic, graph);
+				neighborPathNode.setParent(curNode);
+				
+				if (neighborPathNode.getG() <= maxDistance) {
+					openSet.add(neighborPathNode);
+				}
+			}
+			else {
+				// If the neighbor node is already in the open set then
+				// check to see if the current path to it is better (has
+				// a lower G cost) than the path leading to it now. If
+				// the current path is better then update the node's
+				// parent to add the node to the current path.
+				int costToNeighbor = graph.getCostToNeighbor(
+						curNode.getGraphNode(), neighborNode);
+				
+				if (costToNeighbor + curNode.getG() < openListNode.getG()) {
+					// Setting a new parent will clear the cached cost
+					// values for the PathNode. Remove the node from the
+					// set and add it again so that the set will be
+					// sorted correctly.
+					openSet.remove(openListNode);
+					openListNode.setParent(curNode);
+					openSet.add(openListNode);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Get a heuristic that estimates the cost to a single end node using
+	 * Graph.estimateCostToEnd(), or, for a CoordinateGraph, using its node
+	 * coordinates.
+	 * 
+	 * @param endNode - 
+	 * @param graph - 
+	 * 
+	 * @return
+	 */
+	static Heuristic endNodeHeuristic(final GraphNode endNode, final Graph graph) {
+		if (graph instanceof CoordinateGraph) {
+			return new CoordinateHeuristic(endNode, (CoordinateGraph) graph);
+		}
+		return new Heuristic() {
+			public int estimateCost(GraphNode n) {
+				return graph.estimateCostToEnd(n, endNode);
+			}
+		};
+	}
+	
+	/**
+	 * Get a heuristic that estimates the cost to the nearest of a set of end
+	 * nodes: the minimum of Graph.estimateCostToEnd() over the end nodes. This
+	 * is admissible (and consistent) if Graph.estimateCostToEnd() is.
+	 * 
+	 * @param endNodes - 
+	 * @param graph - 
+	 * 
+	 * @return
+	 */
+	static Heuristic nearestEndNodeHeuristic(
+			final Set<? extends GraphNode> endNodes, final Graph graph) {
+		return new Heuristic() {
+			public int estimateCost(GraphNode n) {
+				int minCost = Integer.MAX_VALUE;
+				for (GraphNode endNode : endNodes) {
+					minCost = Math.min(minCost, graph.estimateCostToEnd(n, endNode));
+					if (minCost == 0) break;
+				}
+				return endNodes.isEmpty() ? 0 : minCost;
+			}
+		};
 	}
 	
 }
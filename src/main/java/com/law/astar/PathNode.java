@@ -22,7 +22,7 @@ import java.util.List;
 public class PathNode implements Comparable<PathNode> {
 	
 	private final GraphNode thisGraphNode;
-	private final GraphNode endGraphNode;
+	private final Heuristic heuristic;
 	private final Graph parentGraph;
 	
 	private PathNode parentNode = null; // Previous node in the path.
@@ -35,16 +35,16 @@ public class PathNode implements Comparable<PathNode> {
 	 * Construct a new PathNode object to represent a given GraphNode.
 	 *
 	 * @param gn - the graph node that this path node represents.
-	 * @param endNode - the ending graph node to which a path is
-	 *  being sought. This value is used by getH(), the heuristic method.
-	 *  Note, endNode should be null if the calling algorithm is not
-	 *  searching for a specific end node - e.g. Dijkstra's algorithm -
+	 * @param h - the heuristic that estimates the cost from this node
+	 *  to the end node(s) to which a path is being sought. This value is
+	 *  used by getH(). Note, h should be null if the calling algorithm is
+	 *  not searching for specific end nodes - e.g. Dijkstra's algorithm -
 	 *  getH() will return 0 in this case.
-	 * @param graph - the graph that contains both graph nodes.
+	 * @param graph - the graph that contains the graph node.
 	 */
-	PathNode(GraphNode gn, GraphNode endNode, Graph graph) {
+	PathNode(GraphNode gn, Heuristic h, Graph graph) {
 		thisGraphNode = gn;
-		endGraphNode = endNode;
+		heuristic = h;
 		parentGraph = graph;
 	}
 	
@@ -131,16 +131,15 @@ public class PathNode implements Comparable<PathNode> {
 	 * of the path finding algorithm will be.
 	 *
 	 * @return The estimated cost (0 - n) to get to the final destination.
-	 *  Returns 0 if no end node is specified in the constructor.
+	 *  Returns 0 if no heuristic is specified in the constructor.
 	 *
-	 * @see Graph.estimateCostToEnd(n1, n2).
+	 * @see Heuristic.estimateCost(n).
 	 */
 	int getH() {
 		if (hCost < 0) {
 			// Cache, for performance.
-			if (endGraphNode != null) {
-				hCost = parentGraph.estimateCostToEnd(
-						thisGraphNode, endGraphNode);
+			if (heuristic != null) {
+				hCost = heuristic.estimateCost(thisGraphNode);
 			}
 			else {
 				hCost = 0;
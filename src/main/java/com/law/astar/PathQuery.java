@@ -0,0 +1,50 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * A request for the shortest path between two nodes, as handled in bulk by
+ * a PathQueryPipeline.
+ *
+ * @author lweber
+ */
+public class PathQuery {
+	
+	private final long id;
+	private final GraphNode startNode;
+	private final GraphNode endNode;
+	
+	/**
+	 * Construct a new PathQuery.
+	 *
+	 * @param id - identifies the query in its result, e.g. its line number.
+	 * @param startNode -
+	 * @param endNode -
+	 */
+	public PathQuery(long id, GraphNode startNode, GraphNode endNode) {
+		this.id = id;
+		this.startNode = startNode;
+		this.endNode = endNode;
+	}
+	
+	public long getId() {
+		return id;
+	}
+	
+	public GraphNode getStartNode() {
+		return startNode;
+	}
+	
+	public GraphNode getEndNode() {
+		return endNode;
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return id + ": " + startNode.getNodeName() + " -> " + endNode.getNodeName();
+	}
+	
+}
@@ -0,0 +1,433 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers a stream of PathQuery objects with a stream of PathQueryResult
+ * objects, searching on a fixed number of worker threads, with flow control
+ * at both ends.
+ *
+ * <p> The pipeline never has more than a given number of queries in flight
+ * - requested from upstream but not yet delivered downstream - so memory
+ * use stays flat however fast the queries are produced, and a slow
+ * subscriber slows the producer down rather than filling the heap. Results
+ * are delivered in the order the queries arrived, or, if unordered, as
+ * soon as each is found.
+ *
+ * <p> Queries waiting for a worker are grouped by start node, and a worker
+ * answers up to MAX_BATCH_SIZE queries from the same start node with one
+ * PathFinder.findNearestNodes() search, which expands the nodes near the
+ * start node once for all of them.
+ *
+ * <p> The graph must be a ThreadSafeGraph since all workers call it at once.
+ * A pipeline may be subscribed to one publisher and by one subscriber, and
+ * shuts its workers down when it completes, fails or is cancelled.
+ *
+ * @author lweber
+ *
+ * @see PathQueryReader
+ * @see PathQueryWriter
+ */
+public class PathQueryPipeline implements Flow.Processor<PathQuery, PathQueryResult> {
+	
+	/**
+	 * The largest number of queries from one start node answered by one
+	 * search.
+	 */
+	public static final int MAX_BATCH_SIZE = 64;
+	
+	private final ThreadSafeGraph graph;
+	private final int parallelism;
+	private final int maxInFlight;
+	private final boolean isOrdered;
+	private final ExecutorService executor;
+	
+	private Flow.Subscription upstream;
+	private Flow.Subscriber<? super PathQueryResult> downstream;
+	
+	// Queries waiting for a worker, by start node, in order of arrival.
+	private final Map<GraphNode, List<Entry>> waiting = new LinkedHashMap<GraphNode, List<Entry>>();
+	
+	// Answered queries waiting to be delivered.
+	private final Queue<Entry> answered;
+	
+	private long demand = 0;
+	private long received = 0;
+	private long delivered = 0;
+	private int busyWorkers = 0;
+	private boolean isUpstreamDone = false;
+	private boolean hasSubscriber = false;
+	private boolean isDraining = false;
+	private boolean isDrainRequested = false;
+	private volatile boolean isTerminated = false;
+	private Throwable error = null;
+	
+	/**
+	 * Construct a new PathQueryPipeline.
+	 *
+	 * @param graph -
+	 * @param parallelism - the number of worker threads.
+	 * @param maxInFlight - the most queries requested from upstream and not
+	 *  yet delivered downstream.
+	 * @param isOrdered - true to deliver results in the order the queries
+	 *  arrived, false to deliver each as soon as it is found.
+	 */
+	public PathQueryPipeline(ThreadSafeGraph graph, int parallelism, int maxInFlight, boolean isOrdered) {
+		if (parallelism < 1 || maxInFlight < 1) {
+			throw new IllegalArgumentException("Parallelism and in flight queries must be at least 1.");
+		}
+		this.graph = graph;
+		this.parallelism = parallelism;
+		this.maxInFlight = maxInFlight;
+		this.isOrdered = isOrdered;
+		this.executor = Executors.newFixedThreadPool(parallelism, new WorkerThreadFactory());
+		
+		if (isOrdered) {
+			answered = new PriorityQueue<Entry>(maxInFlight, new Comparator<Entry>() {
+				public int compare(Entry e1, Entry e2) {
+					return Long.compare(e1.sequence, e2.sequence);
+				}
+			});
+		}
+		else {
+			answered = new ArrayDeque<Entry>(maxInFlight);
+		}
+	}
+	
+	public void onSubscribe(Flow.Subscription subscription) {
+		boolean isAccepted;
+		synchronized (this) {
+			isAccepted = upstream == null && !isTerminated;
+			if (isAccepted) {
+				upstream = subscription;
+			}
+		}
+		
+		if (isAccepted) {
+			subscription.request(maxInFlight);
+		}
+		else {
+			subscription.cancel();
+		}
+	}
+	
+	public synchronized void onNext(PathQuery query) {
+		if (isTerminated) return;
+		
+		Entry entry = new Entry(received++, query);
+		List<Entry> entries = waiting.get(query.getStartNode());
+		if (entries == null) {
+			entries = new ArrayList<Entry>();
+			waiting.put(query.getStartNode(), entries);
+		}
+		entries.add(entry);
+		
+		schedule();
+	}
+	
+	public void onError(Throwable throwable) {
+		synchronized (this) {
+			if (error == null) {
+				error = throwable;
+			}
+			isUpstreamDone = true;
+		}
+		drain();
+	}
+	
+	public void onComplete() {
+		synchronized (this) {
+			isUpstreamDone = true;
+		}
+		drain();
+	}
+	
+	public void subscribe(Flow.Subscriber<? super PathQueryResult> subscriber) {
+		boolean isFirst;
+		synchronized (this) {
+			isFirst = !hasSubscriber;
+			hasSubscriber = true;
+		}
+		
+		if (!isFirst) {
+			subscriber.onSubscribe(new Flow.Subscription() {
+				public void request(long n) {
+				}
+				public void cancel() {
+				}
+			});
+			subscriber.onError(new IllegalStateException("The pipeline already has a subscriber."));
+			return;
+		}
+		
+		subscriber.onSubscribe(new Flow.Subscription() {
+			public void request(long n) {
+				requestResults(n);
+			}
+			public void cancel() {
+				cancelResults();
+			}
+		});
+		
+		// Nothing is delivered until onSubscribe() has returned.
+		synchronized (this) {
+			downstream = subscriber;
+		}
+		drain();
+	}
+	
+	private void requestResults(long n) {
+		Flow.Subscription subscription = null;
+		synchronized (this) {
+			if (isTerminated) return;
+			if (n <= 0) {
+				if (error == null) {
+					error = new IllegalArgumentException("A subscriber must request at least one result.");
+				}
+				isUpstreamDone = true;
+				subscription = upstream;
+			}
+			else {
+				demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+			}
+		}
+		
+		// The pipeline fails, so the publisher must stop too.
+		if (subscription != null) {
+			subscription.cancel();
+		}
+		drain();
+	}
+	
+	private void cancelResults() {
+		Flow.Subscription subscription;
+		synchronized (this) {
+			if (isTerminated) return;
+			terminate();
+			subscription = upstream;
+		}
+		if (subscription != null) {
+			subscription.cancel();
+		}
+	}
+	
+	/**
+	 * Give waiting queries, grouped by start node, to idle workers.
+	 */
+	private void schedule() {
+		while (busyWorkers < parallelism && !waiting.isEmpty() && !isTerminated) {
+			Iterator<List<Entry>> it = waiting.values().iterator();
+			List<Entry> entries = it.next();
+			final List<Entry> batch;
+			
+			if (entries.size() <= MAX_BATCH_SIZE) {
+				it.remove();
+				batch = entries;
+			}
+			else {
+				List<Entry> head = entries.subList(0, MAX_BATCH_SIZE);
+				batch = new ArrayList<Entry>(head);
+				head.clear();
+			}
+			
+			busyWorkers++;
+			executor.execute(new Runnable() {
+				public void run() {
+					answer(batch);
+				}
+			});
+		}
+	}
+	
+	/**
+	 * Answer a batch of queries from the same start node, on a worker.
+	 */
+	private void answer(List<Entry> batch) {
+		try {
+			GraphNode startNode = batch.get(0).query.getStartNode();
+			Set<GraphNode> endNodes = new HashSet<GraphNode>();
+			for (Entry entry : batch) {
+				endNodes.add(entry.query.getEndNode());
+			}
+			
+			Map<GraphNode, PathResult> results = new HashMap<GraphNode, PathResult>();
+			for (PathResult result : PathFinder.findNearestNodes(
+					startNode, endNodes, endNodes.size(), graph)) {
+				results.put(result.getEndNode(), result);
+			}
+			
+			for (Entry entry : batch) {
+				entry.result = results.get(entry.query.getEndNode());
+			}
+		}
+		catch (RuntimeException e) {
+			Flow.Subscription subscription;
+			synchronized (this) {
+				busyWorkers--;
+				if (error == null) {
+					error = e;
+				}
+				subscription = upstream;
+			}
+			if (subscription != null) {
+				subscription.cancel();
+			}
+			drain();
+			return;
+		}
+		
+		synchronized (this) {
+			busyWorkers--;
+			answered.addAll(batch);
+			schedule();
+		}
+		drain();
+	}
+	
+	/**
+	 * Deliver as many answered queries as the subscriber has asked for, ask
+	 * upstream for as many more queries, and finish if everything has been
+	 * delivered or something has failed.
+	 *
+	 * <p> Called without the lock held. The entries to deliver are taken
+	 * under the lock, and the subscriber and upstream are called outside it,
+	 * so that a subscriber doing slow I/O holds up neither the workers nor
+	 * the publisher. One thread drains at a time; a drain asked for while
+	 * another thread is draining sends that thread round again, so every
+	 * signal reaches the subscriber from one thread at a time.
+	 */
+	private void drain() {
+		synchronized (this) {
+			if (isDraining) {
+				isDrainRequested = true;
+				return;
+			}
+			isDraining = true;
+		}
+		
+		List<Entry> entries = new ArrayList<Entry>();
+		
+		while (true) {
+			Flow.Subscriber<? super PathQueryResult> subscriber;
+			Flow.Subscription subscription;
+			Throwable failure = null;
+			boolean isComplete = false;
+			
+			synchronized (this) {
+				isDrainRequested = false;
+				if (isTerminated || downstream == null) {
+					isDraining = false;
+					return;
+				}
+				subscriber = downstream;
+				subscription = isUpstreamDone ? null : upstream;
+				
+				while (demand > 0 && !answered.isEmpty()
+						&& (!isOrdered || answered.peek().sequence == delivered)) {
+					entries.add(answered.poll());
+					delivered++;
+					demand--;
+				}
+				
+				if (error != null) {
+					failure = error;
+					terminate();
+				}
+				else if (isUpstreamDone && delivered == received) {
+					isComplete = true;
+					terminate();
+				}
+			}
+			
+			boolean isFinishing = failure != null || isComplete;
+			for (Entry entry : entries) {
+				// Stop if the subscriber cancels part way through.
+				if (isTerminated && !isFinishing) return;
+				subscriber.onNext(new PathQueryResult(entry.query, entry.result));
+			}
+			
+			if (failure != null) {
+				subscriber.onError(failure);
+				return;
+			}
+			if (isComplete) {
+				subscriber.onComplete();
+				return;
+			}
+			
+			if (!entries.isEmpty() && subscription != null) {
+				subscription.request(entries.size());
+			}
+			entries.clear();
+			
+			synchronized (this) {
+				if (!isDrainRequested) {
+					isDraining = false;
+					return;
+				}
+			}
+		}
+	}
+	
+	private void terminate() {
+		isTerminated = true;
+		waiting.clear();
+		answered.clear();
+		executor.shutdown();
+	}
+	
+	/**
+	 * A query in the pipeline, numbered in order of arrival.
+	 */
+	static class Entry {
+		
+		final long sequence;
+		final PathQuery query;
+		PathResult result;
+		
+		Entry(long sequence, PathQuery query) {
+			this.sequence = sequence;
+			this.query = query;
+		}
+		
+	}
+	
+	/**
+	 * Creates daemon worker threads, so that an abandoned pipeline does not
+	 * keep the JVM alive.
+	 */
+	static class WorkerThreadFactory implements ThreadFactory {
+		
+		private static final AtomicInteger pipelineCount = new AtomicInteger();
+		
+		private final int pipeline = pipelineCount.incrementAndGet();
+		private final AtomicInteger threadCount = new AtomicInteger();
+		
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "path-query-" + pipeline + "-worker-" + threadCount.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		}
+		
+	}
+	
+}
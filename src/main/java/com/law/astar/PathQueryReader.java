@@ -0,0 +1,162 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.concurrent.Flow;
+
+/**
+ * Publishes the queries in a text file, one per line: the numbers of the
+ * start and end nodes of an IndexedGraph, separated by white space. Blank
+ * lines and lines starting with '#' are skipped. Each query's id is its
+ * line number, counting from 1.
+ *
+ * <p> Lines are read on a thread of the reader's own, and only as fast as
+ * the subscriber requests them. A PathQueryReader may be subscribed to once.
+ *
+ * @author lweber
+ *
+ * @see PathQueryPipeline
+ */
+public class PathQueryReader implements Flow.Publisher<PathQuery> {
+	
+	private final BufferedReader in;
+	private final IndexedGraph graph;
+	
+	private boolean isSubscribed = false;
+	private long demand = 0;
+	private boolean isCancelled = false;
+	private Throwable requestError = null;
+	
+	/**
+	 * Construct a new PathQueryReader.
+	 *
+	 * @param in - the queries, closed when they have all been read.
+	 * @param graph - the graph whose nodes are numbered in the queries.
+	 */
+	public PathQueryReader(Reader in, IndexedGraph graph) {
+		this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+		this.graph = graph;
+	}
+	
+	public void subscribe(final Flow.Subscriber<? super PathQuery> subscriber) {
+		synchronized (this) {
+			if (isSubscribed) {
+				subscriber.onSubscribe(new Flow.Subscription() {
+					public void request(long n) {
+					}
+					public void cancel() {
+					}
+				});
+				subscriber.onError(new IllegalStateException("The reader already has a subscriber."));
+				return;
+			}
+			isSubscribed = true;
+		}
+		
+		Thread t = new Thread(new Runnable() {
+			public void run() {
+				publish(subscriber);
+			}
+		}, "path-query-reader");
+		t.setDaemon(true);
+		t.start();
+	}
+	
+	private void publish(Flow.Subscriber<? super PathQuery> subscriber) {
+		subscriber.onSubscribe(new Flow.Subscription() {
+			public void request(long n) {
+				synchronized (PathQueryReader.this) {
+					if (n <= 0) {
+						requestError = new IllegalArgumentException(
+								"A subscriber must request at least one query.");
+						isCancelled = true;
+					}
+					else {
+						demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+					}
+					PathQueryReader.this.notifyAll();
+				}
+			}
+			public void cancel() {
+				synchronized (PathQueryReader.this) {
+					isCancelled = true;
+					PathQueryReader.this.notifyAll();
+				}
+			}
+		});
+		
+		try {
+			long lineNumber = 0;
+			String line;
+			
+			while (awaitDemand() && (line = in.readLine()) != null) {
+				lineNumber++;
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) continue;
+				
+				String[] fields = line.split("\\s+");
+				if (fields.length != 2) {
+					throw new IOException("Line " + lineNumber + " is not a start and end node: " + line);
+				}
+				
+				PathQuery query = new PathQuery(lineNumber,
+						graph.getNode(Integer.parseInt(fields[0])),
+						graph.getNode(Integer.parseInt(fields[1])));
+				
+				synchronized (this) {
+					demand--;
+				}
+				subscriber.onNext(query);
+			}
+			
+			Throwable error = getRequestError();
+			if (error != null) {
+				subscriber.onError(error);
+			}
+			else if (!isCancelled()) {
+				subscriber.onComplete();
+			}
+		}
+		catch (IOException | RuntimeException e) {
+			if (!isCancelled()) {
+				subscriber.onError(e);
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		finally {
+			try {
+				in.close();
+			}
+			catch (IOException e) {
+				// Nothing more can be done.
+			}
+		}
+	}
+	
+	/**
+	 * Wait until the subscriber has requested a query or cancelled.
+	 *
+	 * @return true if a query was requested, false if cancelled.
+	 */
+	private synchronized boolean awaitDemand() throws InterruptedException {
+		while (demand == 0 && !isCancelled) {
+			wait();
+		}
+		return !isCancelled;
+	}
+	
+	private synchronized boolean isCancelled() {
+		return isCancelled;
+	}
+	
+	private synchronized Throwable getRequestError() {
+		return requestError;
+	}
+	
+}
@@ -0,0 +1,51 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * The answer to a PathQuery: the shortest path, or none if the end node
+ * can not be reached.
+ *
+ * @author lweber
+ */
+public class PathQueryResult {
+	
+	private final PathQuery query;
+	private final PathResult path;
+	
+	PathQueryResult(PathQuery query, PathResult path) {
+		this.query = query;
+		this.path = path;
+	}
+	
+	public PathQuery getQuery() {
+		return query;
+	}
+	
+	/**
+	 * Get the shortest path.
+	 *
+	 * @return The path, or null if a path was not found.
+	 */
+	public PathResult getPath() {
+		return path;
+	}
+	
+	/**
+	 * Get the cost of the shortest path.
+	 *
+	 * @return The cost, or -1 if no path exists.
+	 */
+	public int getCost() {
+		return path == null ? -1 : path.getCost();
+	}
+	
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	public String toString() {
+		return query + " = " + (path == null ? "none" : path.toString());
+	}
+	
+}
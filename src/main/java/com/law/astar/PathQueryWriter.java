@@ -0,0 +1,157 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+
+/**
+ * Writes a stream of PathQueryResult objects to an output stream, with the
+ * nodes of the paths given by their numbers in an IndexedGraph, in one of
+ * two formats:
+ *
+ * <ul>
+ * <li> LINES - one line per result: the query id, the cost, and the nodes of
+ *  the path, separated by spaces. A query with no path has cost -1 and no
+ *  nodes.
+ * <li> BINARY - per result, big endian: the query id as a long, the cost as
+ *  an int, the number of nodes as an int, and the nodes as ints.
+ * </ul>
+ *
+ * <p> Results are requested a few hundred at a time, and the stream is
+ * closed when the results are complete or have failed; await() waits for
+ * that and reports any failure.
+ *
+ * @author lweber
+ *
+ * @see PathQueryPipeline
+ */
+public class PathQueryWriter implements Flow.Subscriber<PathQueryResult> {
+	
+	public enum Format { LINES, BINARY }
+	
+	// Results requested at a time, and when to request more.
+	private static final int REQUEST_SIZE = 256;
+	
+	private final DataOutputStream out;
+	private final Format format;
+	private final IndexedGraph graph;
+	private final CountDownLatch done = new CountDownLatch(1);
+	
+	private Flow.Subscription subscription;
+	private int outstanding = 0;
+	private long resultCount = 0;
+	private volatile Throwable error = null;
+	
+	/**
+	 * Construct a new PathQueryWriter.
+	 *
+	 * @param out - receives the results.
+	 * @param format -
+	 * @param graph - the graph whose node numbers are written.
+	 */
+	public PathQueryWriter(OutputStream out, Format format, IndexedGraph graph) {
+		this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+		this.format = format;
+		this.graph = graph;
+	}
+	
+	/**
+	 * Wait until all the results have been written, or writing has failed.
+	 *
+	 * @return The number of results written.
+	 *
+	 * @throws IOException if the results or the writing of them failed.
+	 * @throws InterruptedException
+	 */
+	public long await() throws IOException, InterruptedException {
+		done.await();
+		if (error instanceof IOException) {
+			throw (IOException) error;
+		}
+		if (error != null) {
+			throw new IOException("The path queries failed.", error);
+		}
+		return resultCount;
+	}
+	
+	public void onSubscribe(Flow.Subscription subscription) {
+		this.subscription = subscription;
+		outstanding = REQUEST_SIZE;
+		subscription.request(REQUEST_SIZE);
+	}
+	
+	public void onNext(PathQueryResult result) {
+		try {
+			write(result);
+		}
+		catch (IOException e) {
+			subscription.cancel();
+			finish(e);
+			return;
+		}
+		
+		resultCount++;
+		if (--outstanding <= REQUEST_SIZE / 2) {
+			outstanding += REQUEST_SIZE / 2;
+			subscription.request(REQUEST_SIZE / 2);
+		}
+	}
+	
+	public void onError(Throwable throwable) {
+		finish(throwable);
+	}
+	
+	public void onComplete() {
+		finish(null);
+	}
+	
+	private void write(PathQueryResult result) throws IOException {
+		PathResult path = result.getPath();
+		List<GraphNode> nodes = path == null ? null : path.getNodes();
+		
+		if (format == Format.BINARY) {
+			out.writeLong(result.getQuery().getId());
+			out.writeInt(result.getCost());
+			out.writeInt(nodes == null ? 0 : nodes.size());
+			if (nodes != null) {
+				for (GraphNode n : nodes) {
+					out.writeInt(graph.getNodeIndex(n));
+				}
+			}
+		}
+		else {
+			StringBuilder sb = new StringBuilder();
+			sb.append(result.getQuery().getId()).append(' ').append(result.getCost());
+			if (nodes != null) {
+				for (GraphNode n : nodes) {
+					sb.append(' ').append(graph.getNodeIndex(n));
+				}
+			}
+			sb.append('\n');
+			out.write(sb.toString().getBytes(StandardCharsets.US_ASCII));
+		}
+	}
+	
+	private void finish(Throwable throwable) {
+		if (done.getCount() == 0) return;
+		error = throwable;
+		try {
+			out.close();
+		}
+		catch (IOException e) {
+			if (error == null) {
+				error = e;
+			}
+		}
+		done.countDown();
+	}
+	
+}
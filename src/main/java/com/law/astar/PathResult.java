@@ -0,0 +1,73 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.List;
+
+/**
+ * The result of a search for a path: the nodes along the path, from the
+ * start node to the end node that was reached, and the cost of the path.
+ *
+ * @author lweber
+ */
+public class PathResult {
+	
+	private final List<GraphNode> pathNodes;
+	private final int pathCost;
+	
+	/**
+	 * Construct a new PathResult from the end node of a path.
+	 *
+	 * @param pn - the path node at the end of the path.
+	 */
+	PathResult(PathNode pn) {
+		pathNodes = pn.getNodes();
+		pathCost = pn.getG();
+	}
+	
+	/**
+	 * Construct a new PathResult from the nodes of a path and its cost.
+	 *
+	 * @param nodes - the nodes ordered from the start node to the end node.
+	 * @param cost - the path cost.
+	 */
+	PathResult(List<GraphNode> nodes, int cost) {
+		pathNodes = nodes;
+		pathCost = cost;
+	}
+	
+	/**
+	 * Get the node at the end of the path.
+	 *
+	 * @return The end node.
+	 */
+	public GraphNode getEndNode() {
+		return pathNodes.get(pathNodes.size() - 1);
+	}
+	
+	/**
+	 * Get the nodes in the path, ordered from the start node to the end node.
+	 *
+	 * @return A list of GraphNode objects.
+	 */
+	public List<GraphNode> getNodes() {
+		return pathNodes;
+	}
+	
+	/**
+	 * Get the cost to travel from the start node to the end node along
+	 * the path.
+	 *
+	 * @return The path cost.
+	 */
+	public int getCost() {
+		return pathCost;
+	}
+	
+	@Override
+	public String toString() {
+		return getEndNode().getNodeName() + " C=" + pathCost + " " + pathNodes;
+	}
+	
+}
@@ -0,0 +1,40 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for one PathFinder query.
+ *
+ * @author lweber
+ */
+@Name("com.law.astar.Search")
+@Label("Path Search")
+@Category("A* Search")
+@Description("A PathFinder query, with the work it did and its result.")
+class SearchEvent extends Event {
+	
+	@Label("Query Type")
+	String queryType;
+	
+	@Label("Expanded Nodes")
+	int expandedNodes;
+	
+	@Label("Generated Nodes")
+	int generatedNodes;
+	
+	@Label("Result Cost")
+	@Description("Cost of the lowest cost path found, or -1 if none or if the query finds all nodes within a distance.")
+	int resultCost;
+	
+	@Label("Found Nodes")
+	@Description("Number of end nodes found, or of nodes found within the distance.")
+	int foundNodes;
+	
+}
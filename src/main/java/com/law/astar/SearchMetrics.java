@@ -0,0 +1,138 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process metrics for PathFinder queries: for each type of query, a
+ * histogram of latencies, in nanoseconds, and a histogram of the number of
+ * nodes expanded. format() writes them out in the Prometheus text format
+ * for a metrics endpoint to serve.
+ *
+ * <p> Metrics are off unless the system property "com.law.astar.metrics"
+ * is "true" or setEnabled(true) is called. While they are off, and no
+ * Java Flight Recorder recording has the SearchEvent or SearchPhaseEvent
+ * enabled, a query does no more than check three flags.
+ *
+ * @author lweber
+ */
+public class SearchMetrics {
+	
+	public static final String FIND_SHORTEST_PATH = "findShortestPath";
+	public static final String FIND_LOWEST_PATH_COST = "findLowestPathCost";
+	public static final String FIND_ALL_NODES = "findAllNodes";
+	public static final String FIND_NEAREST_NODES = "findNearestNodes";
+	
+	private static volatile boolean enabled = Boolean.getBoolean("com.law.astar.metrics");
+	
+	private static final ConcurrentHashMap<String, Histogram> latencies = new ConcurrentHashMap<String, Histogram>();
+	private static final ConcurrentHashMap<String, Histogram> expansions = new ConcurrentHashMap<String, Histogram>();
+	
+	private SearchMetrics() {
+	}
+	
+	public static boolean isEnabled() {
+		return enabled;
+	}
+	
+	public static void setEnabled(boolean enable) {
+		enabled = enable;
+	}
+	
+	/**
+	 * Get the latency histogram, in nanoseconds, for a type of query.
+	 *
+	 * @param queryType - one of the query type constants.
+	 *
+	 * @return
+	 */
+	public static Histogram getLatencies(String queryType) {
+		return getHistogram(latencies, queryType);
+	}
+	
+	/**
+	 * Get the histogram of the number of nodes expanded by a type of query.
+	 *
+	 * @param queryType - one of the query type constants.
+	 *
+	 * @return
+	 */
+	public static Histogram getExpansions(String queryType) {
+		return getHistogram(expansions, queryType);
+	}
+	
+	private static Histogram getHistogram(
+			ConcurrentHashMap<String, Histogram> histograms, String queryType) {
+		Histogram h = histograms.get(queryType);
+		if (h == null) {
+			Histogram newHistogram = new Histogram();
+			h = histograms.putIfAbsent(queryType, newHistogram);
+			if (h == null) {
+				h = newHistogram;
+			}
+		}
+		return h;
+	}
+	
+	/**
+	 * Record one query.
+	 */
+	static void record(String queryType, long nanos, int expandedNodes) {
+		getLatencies(queryType).record(nanos);
+		getExpansions(queryType).record(expandedNodes);
+	}
+	
+	/**
+	 * Forget all recorded queries.
+	 */
+	public static void reset() {
+		latencies.clear();
+		expansions.clear();
+	}
+	
+	/**
+	 * Write the metrics in the Prometheus text exposition format, as the
+	 * histograms "astar_query_latency_seconds" and "astar_query_expanded_nodes"
+	 * with a "query" label for the query type.
+	 *
+	 * @return
+	 */
+	public static String format() {
+		StringBuilder sb = new StringBuilder();
+		format(sb, "astar_query_latency_seconds", "PathFinder query latency.", latencies, 1e-9);
+		format(sb, "astar_query_expanded_nodes", "Nodes expanded per PathFinder query.", expansions, 1);
+		return sb.toString();
+	}
+	
+	private static void format(StringBuilder sb, String name, String help,
+			Map<String, Histogram> histograms, double scale) {
+		
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(" histogram\n");
+		
+		for (Map.Entry<String, Histogram> entry : new TreeMap<String, Histogram>(histograms).entrySet()) {
+			String label = "query=\"" + entry.getKey() + "\"";
+			Histogram h = entry.getValue();
+			
+			// Only the buckets up to the largest value are written, plus +Inf.
+			long cumulative = 0;
+			for (int i = 0; i < h.getBucketCount() - 1; i++) {
+				cumulative += h.getBucketValueCount(i);
+				sb.append(name).append("_bucket{").append(label).append(",le=\"")
+					.append(h.getBucketUpperBound(i) * scale).append("\"} ").append(cumulative).append('\n');
+				if (h.getBucketUpperBound(i) >= h.getMax()) break;
+			}
+			sb.append(name).append("_bucket{").append(label).append(",le=\"+Inf\"} ")
+				.append(h.getCount()).append('\n');
+			sb.append(name).append("_sum{").append(label).append("} ")
+				.append(h.getSum() * scale).append('\n');
+			sb.append(name).append("_count{").append(label).append("} ")
+				.append(h.getCount()).append('\n');
+		}
+	}
+	
+}
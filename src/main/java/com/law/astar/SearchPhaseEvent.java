@@ -0,0 +1,34 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder event for a slow phase of a PathFinder query: the
+ * search itself, or collecting its result. Only phases that take longer
+ * than the threshold, 10 ms unless set otherwise in the recording's
+ * settings, are recorded.
+ *
+ * @author lweber
+ */
+@Name("com.law.astar.SearchPhase")
+@Label("Path Search Phase")
+@Category("A* Search")
+@Description("A slow phase of a PathFinder query.")
+@Threshold("10 ms")
+class SearchPhaseEvent extends Event {
+	
+	@Label("Query Type")
+	String queryType;
+	
+	@Label("Phase")
+	String phase;
+	
+}
@@ -0,0 +1,170 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import jdk.jfr.EventType;
+
+/**
+ * Times one PathFinder query, counts the nodes it expands, and reports it
+ * to SearchMetrics and to Java Flight Recorder - as far as either is
+ * enabled. When neither is, begin() returns a probe that does nothing and
+ * has no SearchStatistics, so the search does not count anything either.
+ *
+ * <p> The flight recorder is only reached through FlightRecorderEvents, so
+ * on a runtime without the jdk.jfr module queries are still probed for
+ * SearchMetrics and the events are simply never enabled.
+ *
+ * @author lweber
+ */
+class SearchProbe {
+	
+	private static final SearchProbe DISABLED = new SearchProbe(null, false);
+	
+	private final String queryType;
+	private final boolean recordMetrics;
+	private final long startNanos;
+	private final SearchStatistics stats;
+	private final SearchEvent searchEvent;
+	private SearchPhaseEvent phaseEvent;
+	
+	private SearchProbe(String queryType, boolean recordMetrics) {
+		this.queryType = queryType;
+		this.recordMetrics = recordMetrics;
+		
+		if (queryType == null) {
+			startNanos = 0;
+			stats = null;
+			searchEvent = null;
+			return;
+		}
+		
+		stats = new SearchStatistics();
+		searchEvent = FlightRecorderEvents.isSearchEnabled() ? new SearchEvent() : null;
+		if (searchEvent != null) {
+			searchEvent.begin();
+		}
+		startNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Start probing a query, in its "search" phase.
+	 *
+	 * @param queryType - one of the SearchMetrics query type constants.
+	 *
+	 * @return
+	 */
+	static SearchProbe begin(String queryType) {
+		boolean recordMetrics = SearchMetrics.isEnabled();
+		if (!recordMetrics && !FlightRecorderEvents.isSearchEnabled()
+				&& !FlightRecorderEvents.isPhaseEnabled()) {
+			return DISABLED;
+		}
+		
+		SearchProbe probe = new SearchProbe(queryType, recordMetrics);
+		probe.phase("search");
+		return probe;
+	}
+	
+	/**
+	 * Get the statistics the search should count into.
+	 *
+	 * @return The statistics, or null if nothing is being recorded.
+	 */
+	SearchStatistics getStatistics() {
+		return stats;
+	}
+	
+	/**
+	 * End the current phase of the query, if any, and start the next.
+	 *
+	 * @param phase - the name of the next phase.
+	 */
+	void phase(String phase) {
+		if (queryType == null) return;
+		
+		endPhase();
+		
+		if (FlightRecorderEvents.isPhaseEnabled()) {
+			phaseEvent = new SearchPhaseEvent();
+			phaseEvent.queryType = queryType;
+			phaseEvent.phase = phase;
+			phaseEvent.begin();
+		}
+	}
+	
+	private void endPhase() {
+		if (phaseEvent != null) {
+			phaseEvent.end();
+			if (phaseEvent.shouldCommit()) {
+				phaseEvent.commit();
+			}
+			phaseEvent = null;
+		}
+	}
+	
+	/**
+	 * End the query and report it.
+	 *
+	 * @param resultCost - the cost of the lowest cost path found, or -1 if
+	 *  none or if the query finds all nodes within a distance.
+	 * @param foundNodes - the number of end nodes found, or of nodes found
+	 *  within the distance.
+	 */
+	void end(int resultCost, int foundNodes) {
+		if (queryType == null) return;
+		
+		endPhase();
+		
+		if (recordMetrics) {
+			SearchMetrics.record(queryType, System.nanoTime() - startNanos, stats.getExpandedNodes());
+		}
+		
+		if (searchEvent != null) {
+			searchEvent.end();
+			if (searchEvent.shouldCommit()) {
+				searchEvent.queryType = queryType;
+				searchEvent.expandedNodes = stats.getExpandedNodes();
+				searchEvent.generatedNodes = stats.getGeneratedNodes();
+				searchEvent.resultCost = resultCost;
+				searchEvent.foundNodes = foundNodes;
+				searchEvent.commit();
+			}
+		}
+	}
+	
+	/**
+	 * The flight recorder event types, looked up when first asked for
+	 * rather than when SearchProbe is loaded. Without the jdk.jfr module
+	 * the lookup fails, and both event types read as disabled.
+	 */
+	static class FlightRecorderEvents {
+		
+		private static final EventType SEARCH_EVENT_TYPE;
+		private static final EventType PHASE_EVENT_TYPE;
+		
+		static {
+			EventType searchEventType = null;
+			EventType phaseEventType = null;
+			try {
+				searchEventType = EventType.getEventType(SearchEvent.class);
+				phaseEventType = EventType.getEventType(SearchPhaseEvent.class);
+			}
+			catch (NoClassDefFoundError e) {
+				// No flight recorder in this runtime.
+			}
+			SEARCH_EVENT_TYPE = searchEventType;
+			PHASE_EVENT_TYPE = phaseEventType;
+		}
+		
+		static boolean isSearchEnabled() {
+			return SEARCH_EVENT_TYPE != null && SEARCH_EVENT_TYPE.isEnabled();
+		}
+		
+		static boolean isPhaseEnabled() {
+			return PHASE_EVENT_TYPE != null && PHASE_EVENT_TYPE.isEnabled();
+		}
+		
+	}
+	
+}
@@ -0,0 +1,119 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Counters describing the work done, and the memory held, by a search.
+ * Pass an instance to a search method that accepts one and read the
+ * counters after the search returns.
+ *
+ * @author lweber
+ */
+public class SearchStatistics {
+	
+	private int expandedNodes = 0;
+	private int generatedNodes = 0;
+	private int costEvaluations = 0;
+	private int peakStoredNodes = 0;
+	private boolean isBudgetExceeded = false;
+	
+	/**
+	 * Get the number of nodes whose neighbors were generated.
+	 *
+	 * @return
+	 */
+	public int getExpandedNodes() {
+		return expandedNodes;
+	}
+	
+	/**
+	 * Get the number of neighbors generated by expanding nodes, not counting
+	 * neighbors that had already been expanded. A search that calls
+	 * Graph.getCostToNeighbor() for every generated neighbor makes this
+	 * many calls.
+	 *
+	 * @return
+	 */
+	public int getGeneratedNodes() {
+		return generatedNodes;
+	}
+	
+	/**
+	 * Get the number of calls made to Graph.getCostToNeighbor().
+	 *
+	 * @return
+	 */
+	public int getCostEvaluations() {
+		return costEvaluations;
+	}
+	
+	/**
+	 * Get the number of calls to Graph.getCostToNeighbor() that were
+	 * avoided by evaluating edge costs lazily.
+	 *
+	 * @return getGeneratedNodes() - getCostEvaluations(), or zero.
+	 */
+	public int getAvoidedCostEvaluations() {
+		return Math.max(0, generatedNodes - costEvaluations);
+	}
+	
+	/**
+	 * Get the largest number of nodes the search held in memory at once.
+	 * This is the measure of memory used by the search.
+	 *
+	 * @return
+	 */
+	public int getPeakStoredNodes() {
+		return peakStoredNodes;
+	}
+	
+	/**
+	 * Whether the search cut off a branch for want of memory that might
+	 * have held a cheaper path than the one found, or any path when none
+	 * was found. If so the result is the best that fits within the memory
+	 * budget, and a larger budget may find a shorter path.
+	 *
+	 * @return
+	 */
+	public boolean isBudgetExceeded() {
+		return isBudgetExceeded;
+	}
+	
+	void nodeExpanded() {
+		expandedNodes++;
+	}
+	
+	void nodeGenerated() {
+		generatedNodes++;
+	}
+	
+	void costEvaluated() {
+		costEvaluations++;
+	}
+	
+	/**
+	 * Record the number of nodes currently held by the search.
+	 *
+	 * @param n -
+	 */
+	void setStoredNodes(int n) {
+		if (n > peakStoredNodes) {
+			peakStoredNodes = n;
+		}
+	}
+	
+	void budgetExceeded() {
+		isBudgetExceeded = true;
+	}
+	
+	@Override
+	public String toString() {
+		return "Expanded=" + expandedNodes +
+			" Generated=" + generatedNodes +
+			" CostEvaluations=" + costEvaluations +
+			" PeakStored=" + peakStoredNodes +
+			" BudgetExceeded=" + isBudgetExceeded;
+	}
+	
+}
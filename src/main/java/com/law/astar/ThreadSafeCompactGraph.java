@@ -0,0 +1,33 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+import java.util.List;
+
+/**
+ * A CompactGraph of a ThreadSafeGraph. Heuristic estimates are passed on to
+ * the original graph, which is safe to ask from whichever thread is
+ * searching, and the copy does not change once built, so a
+ * ThreadSafeCompactGraph may be searched from several threads, e.g. by
+ * ParallelPathFinder.
+ *
+ * @author lweber
+ */
+public class ThreadSafeCompactGraph extends CompactGraph implements ThreadSafeGraph {
+	
+	/**
+	 * Build a ThreadSafeCompactGraph of the given nodes of a graph, in a
+	 * given order. Only edges between the given nodes are kept.
+	 *
+	 * @param graph - the original graph, which is asked for heuristic
+	 *  estimates from any thread searching the copy.
+	 * @param nodes - the nodes to keep.
+	 * @param order - order[i] is the position in 'nodes' of the node to be
+	 *  numbered i, e.g. from NodeOrdering.
+	 */
+	public ThreadSafeCompactGraph(ThreadSafeGraph graph, List<? extends GraphNode> nodes, int[] order) {
+		super(graph, nodes, order);
+	}
+	
+}
@@ -0,0 +1,20 @@
+/*
+ * Created on Oct 19, 2026
+ */
+package com.law.astar;
+
+/**
+ * Marker interface for a graph whose methods may be called from several
+ * threads at once. Implementing it declares that getNeighborNodes(),
+ * getCostToNeighbor() and estimateCostToEnd() only read the graph, or
+ * are otherwise synchronized, and that the iterators they return are
+ * not shared between calls.
+ *
+ * <p> A graph must implement this interface to be searched by the
+ * ParallelPathFinder.
+ *
+ * @author lweber
+ */
+public interface ThreadSafeGraph extends Graph {
+	
+}
@@ -2,14 +2,38 @@ package com.law.astar;
 
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 import org.junit.Before;
 import org.junit.Test;
 
 import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.GridGraph;
+import com.law.astar.graph.GridNode;
+import com.law.astar.graph.PointGraph;
 
 /**
  * @author lweber
@@ -19,6 +43,7 @@ public class AStarTest {
 	private Graph graph;
 	private GraphNode n1;
 	private GraphNode n2;
+	private GraphNode n3;
 	private GraphNode n4;
 	private GraphNode n5;
 	
@@ -27,6 +52,7 @@ public class AStarTest {
 		graph = GraphFactory.createUndirectedWeightedGraph();
 		n1 = GraphFactory.createGraphNode("n1");
 		n2 = GraphFactory.createGraphNode("n2");
+		n3 = GraphFactory.createGraphNode("n3");
 		n4 = GraphFactory.createGraphNode("n4");
 		n5 = GraphFactory.createGraphNode("n5");
 	}
@@ -56,4 +82,771 @@ public class AStarTest {
 		assertTrue(nodes.containsAll(Arrays.asList(n1, n2, n4)));
 	}
 	
+	@Test
+	public void findNearestNode() {
+		PathResult nearest = PathFinder.findNearestNode(n1,
+				new HashSet<GraphNode>(Arrays.asList(n3, n4)), graph);
+		assertEquals(n4, nearest.getEndNode());
+		assertEquals(4, nearest.getCost());
+		assertArrayEquals(new GraphNode[] { n1, n2, n4 }, nearest.getNodes().toArray());
+	}
+	
+	@Test
+	public void findNearestNode_noPathExists() {
+		PathResult nearest = PathFinder.findNearestNode(n1,
+				new HashSet<GraphNode>(Arrays.asList(n5)), graph);
+		assertNull(nearest);
+	}
+	
+	@Test
+	public void findNearestNodes() {
+		List<PathResult> nearest = PathFinder.findNearestNodes(n1,
+				new HashSet<GraphNode>(Arrays.asList(n2, n3, n4, n5)), 3, graph);
+		assertEquals(3, nearest.size());
+		assertEquals(n2, nearest.get(0).getEndNode());
+		assertEquals(1, nearest.get(0).getCost());
+		assertEquals(n4, nearest.get(1).getEndNode());
+		assertEquals(4, nearest.get(1).getCost());
+		assertEquals(n3, nearest.get(2).getEndNode());
+		assertEquals(5, nearest.get(2).getCost());
+	}
+	
+	@Test
+	public void boundedFindShortestPath() {
+		SearchStatistics stats = new SearchStatistics();
+		List<GraphNode> shortestPath = BoundedPathFinder.findShortestPath(n1, n4, 3, graph, stats);
+		assertArrayEquals(new GraphNode[] { n1, n2, n4 }, shortestPath.toArray());
+		assertTrue(stats.getPeakStoredNodes() <= 3);
+	}
+	
+	@Test
+	public void boundedFindLowestPathCost() {
+		assertEquals(5, BoundedPathFinder.findLowestPathCost(n1, n3, 3, graph));
+		
+		SearchStatistics stats = new SearchStatistics();
+		assertEquals(-1, BoundedPathFinder.findLowestPathCost(n1, n5, 4, graph, stats));
+		assertFalse(stats.isBudgetExceeded());
+		
+		// n1 to n4 costs 4 over three nodes, or 8 over two.
+		stats = new SearchStatistics();
+		assertEquals(8, BoundedPathFinder.findLowestPathCost(n1, n4, 1, graph, stats));
+		assertTrue(stats.isBudgetExceeded());
+		
+		stats = new SearchStatistics();
+		assertEquals(-1, BoundedPathFinder.findLowestPathCost(n1, n3, 0, graph, stats));
+		assertTrue(stats.isBudgetExceeded());
+	}
+	
+	@Test
+	public void boundedFindShortestPath_withinBudget() {
+		// A budget too small for the shortest path searches every path that
+		// fits before giving up, so the grid is kept small.
+		GridGraph grid = GraphFactory.createGridGraph(7, 7, 5);
+		GraphNode start = grid.getNode(0, 0);
+		GraphNode end = grid.getNode(6, 5);
+		int cost = PathFinder.findLowestPathCost(start, end, grid);
+		int pathLength = PathFinder.findShortestPath(start, end, grid).size();
+		
+		for (int budget : new int[] { 1, 3, pathLength - 2, pathLength - 1, pathLength, pathLength + 5, 200 }) {
+			SearchStatistics stats = new SearchStatistics();
+			List<GraphNode> path = BoundedPathFinder.findShortestPath(start, end, budget, grid, stats);
+			assertTrue(stats.getPeakStoredNodes() <= budget);
+			if (budget < pathLength - 1) {
+				// The shortest path does not fit, so any path found is longer.
+				assertTrue(stats.isBudgetExceeded());
+				if (path != null) {
+					assertTrue(path.size() <= budget + 1);
+					assertTrue(pathCost(path, grid) > cost);
+				}
+			}
+			else {
+				assertNotNull(path);
+				assertEquals(cost, pathCost(path, grid));
+			}
+		}
+	}
+	
+	@Test
+	public void boundedFindShortestPath_exactBudget() {
+		assertExactBudget(GraphFactory.createGridGraph(20, 20, 5), 19, 17, 37);
+		assertExactBudget(GraphFactory.createGridGraph(16, 16, 5), 8, 8, 17);
+	}
+	
+	/**
+	 * Assert that a budget of the number of nodes in the shortest path, not
+	 * counting the end node, finds the shortest path from the grid's corner.
+	 */
+	private void assertExactBudget(GridGraph grid, int x, int y, int pathLength) {
+		GraphNode start = grid.getNode(0, 0);
+		GraphNode end = grid.getNode(x, y);
+		assertEquals(pathLength, PathFinder.findShortestPath(start, end, grid).size());
+		
+		int cost = PathFinder.findLowestPathCost(start, end, grid);
+		List<GraphNode> path = BoundedPathFinder.findShortestPath(start, end, pathLength - 1, grid);
+		assertNotNull(path);
+		assertEquals(cost, pathCost(path, grid));
+		assertEquals(cost, BoundedPathFinder.findLowestPathCost(start, end, pathLength, grid));
+	}
+	
+	@Test
+	public void parallelFindLowestPathCost() {
+		GridGraph grid = GraphFactory.createGridGraph(40, 40, 9);
+		GraphNode start = grid.getNode(0, 0);
+		GraphNode end = grid.getNode(39, 25);
+		int cost = PathFinder.findLowestPathCost(start, end, grid);
+		assertEquals(cost, ParallelPathFinder.findLowestPathCost(start, end, 1, grid));
+		assertEquals(cost, ParallelPathFinder.findLowestPathCost(start, end, 4, grid));
+	}
+	
+	@Test
+	public void parallelFindShortestPath() {
+		GridGraph grid = GraphFactory.createGridGraph(3, 1, 1);
+		List<GraphNode> shortestPath = ParallelPathFinder.findShortestPath(
+				grid.getNode(0, 0), grid.getNode(2, 0), 2, grid);
+		assertArrayEquals(new GraphNode[] {
+				grid.getNode(0, 0), grid.getNode(1, 0), grid.getNode(2, 0) }, shortestPath.toArray());
+	}
+	
+	@Test
+	public void lazyFindShortestPath() {
+		List<GraphNode> shortestPath = LazyPathFinder.findShortestPath(n1, n4, graph);
+		assertArrayEquals(new GraphNode[] { n1, n2, n4 }, shortestPath.toArray());
+		assertEquals(-1, LazyPathFinder.findLowestPathCost(n1, n5, graph));
+	}
+	
+	@Test
+	public void lazyFindShortestPath_avoidsCostEvaluations() {
+		GridGraph grid = GraphFactory.createGridGraph(40, 40, 9);
+		GraphNode start = grid.getNode(0, 0);
+		GraphNode end = grid.getNode(39, 25);
+		SearchStatistics stats = new SearchStatistics();
+		List<GraphNode> lazyPath = LazyPathFinder.findShortestPath(start, end, null, grid, stats);
+		assertEquals(PathFinder.findLowestPathCost(start, end, grid), pathCost(lazyPath, grid));
+		assertTrue(stats.getAvoidedCostEvaluations() > 0);
+	}
+	
+	@Test
+	public void offHeapFindLowestPathCost() {
+		GridGraph grid = GraphFactory.createGridGraph(40, 40, 9);
+		OffHeapPathFinder finder = new OffHeapPathFinder();
+		GraphNode start = grid.getNode(0, 0);
+		for (int y = 0; y < 40; y += 13) {
+			GraphNode end = grid.getNode(39, y);
+			int cost = PathFinder.findLowestPathCost(start, end, grid);
+			assertEquals(cost, finder.findLowestPathCost(start, end, grid));
+			assertEquals(cost, pathCost(finder.findShortestPath(start, end, grid), grid));
+		}
+	}
+	
+	@Test
+	public void offHeapFindAllNodes() {
+		GridGraph grid = GraphFactory.createGridGraph(40, 40, 9);
+		OffHeapPathFinder finder = new OffHeapPathFinder();
+		GraphNode start = grid.getNode(20, 20);
+		assertEquals(PathFinder.findAllNodes(start, 30, grid), finder.findAllNodes(start, 30, grid));
+		assertEquals(PathFinder.findAllNodes(start, 10, grid), finder.findAllNodes(start, 10, grid));
+	}
+	
+	@Test
+	public void partitionedFindShortestPath() {
+		GridGraph grid = GraphFactory.createGridGraph(12, 12, 9);
+		List<Cell> cells = GraphPartitioner.partition(grid, allNodes(grid), 16);
+		PartitionedGraph partitioned = new PartitionedGraph(new LocalCellTransport(cells));
+		assertTrue(cells.size() > 1);
+		
+		GraphNode start = grid.getNode(0, 0);
+		for (int i = 0; i < grid.getNodeCount(); i += 7) {
+			GraphNode end = grid.getNode(i);
+			int cost = PathFinder.findLowestPathCost(start, end, grid);
+			assertEquals(cost, partitioned.findLowestPathCost(start, end));
+			assertEquals(cost, pathCost(partitioned.findShortestPath(start, end), grid));
+		}
+	}
+	
+	@Test
+	public void partitionedRebuildCell() {
+		final GridGraph grid = GraphFactory.createGridGraph(12, 12, 9);
+		final int[] factor = { 1 };
+		final Set<GraphNode> changedNodes = new HashSet<GraphNode>();
+		
+		// Edge weights within one cell are multiplied by a factor.
+		Graph graph = new Graph() {
+			public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+				return grid.getNeighborNodes(n);
+			}
+			public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+				int cost = grid.getCostToNeighbor(n1, n2);
+				return changedNodes.contains(n1) && changedNodes.contains(n2) ? cost * factor[0] : cost;
+			}
+			public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+				return grid.estimateCostToEnd(startNode, endNode);
+			}
+		};
+		
+		List<Cell> cells = GraphPartitioner.partition(graph, allNodes(grid), 16);
+		PartitionedGraph partitioned = new PartitionedGraph(new LocalCellTransport(cells));
+		Cell changedCell = cells.get(cells.size() / 2);
+		changedNodes.addAll(changedCell.getNodes());
+		
+		factor[0] = 5;
+		changedCell.rebuild();
+		partitioned.rebuildCell(changedCell.getCellId());
+		
+		GraphNode start = grid.getNode(0, 0);
+		for (int i = 0; i < grid.getNodeCount(); i += 5) {
+			GraphNode end = grid.getNode(i);
+			assertEquals(PathFinder.findLowestPathCost(start, end, graph),
+					partitioned.findLowestPathCost(start, end));
+		}
+	}
+	
+	@Test
+	public void allPairsTable() {
+		GridGraph grid = GraphFactory.createGridGraph(9, 7, 9);
+		AllPairsTable floydWarshall = AllPairsTable.buildWithFloydWarshall(grid, 2);
+		AllPairsTable dijkstra = AllPairsTable.buildWithDijkstra(grid, 2);
+		
+		for (int i = 0; i < grid.getNodeCount(); i += 5) {
+			for (int j = 0; j < grid.getNodeCount(); j += 3) {
+				GraphNode start = grid.getNode(i);
+				GraphNode end = grid.getNode(j);
+				int cost = PathFinder.findLowestPathCost(start, end, grid);
+				assertEquals(cost, floydWarshall.getCost(start, end));
+				assertEquals(cost, dijkstra.getCost(start, end));
+				assertEquals(cost, pathCost(floydWarshall.getPath(start, end), grid));
+				assertEquals(cost, pathCost(dijkstra.getPath(start, end), grid));
+			}
+		}
+	}
+	
+	@Test
+	public void allPairsTable_saveAndLoad() throws IOException {
+		GridGraph grid = GraphFactory.createGridGraph(6, 6, 9);
+		AllPairsTable table = AllPairsTable.build(grid, 1);
+		File file = File.createTempFile("allpairs", ".tbl");
+		try {
+			table.save(file);
+			AllPairsTable loaded = AllPairsTable.load(file, grid);
+			for (int i = 0; i < grid.getNodeCount(); i++) {
+				for (int j = 0; j < grid.getNodeCount(); j++) {
+					assertEquals(table.getCost(i, j), loaded.getCost(i, j));
+					assertEquals(table.getNextNode(i, j), loaded.getNextNode(i, j));
+				}
+			}
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	@Test
+	public void searchMetrics() {
+		SearchMetrics.reset();
+		SearchMetrics.setEnabled(true);
+		try {
+			PathFinder.findLowestPathCost(n1, n4, graph);
+			PathFinder.findLowestPathCost(n1, n5, graph);
+		}
+		finally {
+			SearchMetrics.setEnabled(false);
+		}
+		PathFinder.findLowestPathCost(n1, n4, graph);
+		
+		assertEquals(2, SearchMetrics.getLatencies(SearchMetrics.FIND_LOWEST_PATH_COST).getCount());
+		Histogram expansions = SearchMetrics.getExpansions(SearchMetrics.FIND_LOWEST_PATH_COST);
+		assertEquals(2, expansions.getCount());
+		assertEquals(4, expansions.getMax());
+		assertTrue(SearchMetrics.format().contains(
+				"astar_query_expanded_nodes_count{query=\"findLowestPathCost\"} 2"));
+	}
+	
+	@Test
+	public void searchEvents() throws IOException {
+		Path file = Files.createTempFile("astar", ".jfr");
+		try {
+			Recording recording = new Recording();
+			recording.enable("com.law.astar.Search");
+			recording.start();
+			PathFinder.findLowestPathCost(n1, n4, graph);
+			PathFinder.findAllNodes(n2, 3, graph);
+			recording.stop();
+			recording.dump(file);
+			recording.close();
+			
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			assertEquals(2, events.size());
+			assertEquals("findLowestPathCost", events.get(0).getString("queryType"));
+			assertEquals(4, events.get(0).getInt("resultCost"));
+			assertEquals(1, events.get(0).getInt("foundNodes"));
+			assertTrue(events.get(0).getInt("expandedNodes") > 0);
+			assertEquals("findAllNodes", events.get(1).getString("queryType"));
+			assertEquals(-1, events.get(1).getInt("resultCost"));
+			assertEquals(3, events.get(1).getInt("foundNodes"));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void coordinateHeuristic() {
+		PointGraph points = GraphFactory.createPointGraph(300, 4, 1);
+		NodeCoordinates coordinates = points.getNodeCoordinates();
+		AllPairsTable table = AllPairsTable.build(points, 1);
+		
+		int n = points.getNodeCount();
+		for (int to = 0; to < n; to += 7) {
+			// The estimates are admissible.
+			for (int i = 0; i < n; i++) {
+				if (table.getCost(i, to) >= 0) {
+					assertTrue(coordinates.estimateCost(i, to) <= table.getCost(i, to));
+				}
+			}
+		}
+		
+		for (int i = 0; i < n; i += 13) {
+			GraphNode start = points.getNode(i);
+			GraphNode end = points.getNode(n - 1 - i);
+			List<GraphNode> path = PathFinder.findShortestPath(start, end, points);
+			assertEquals(table.getCost(i, n - 1 - i), path == null ? -1 : pathCost(path, points));
+		}
+		
+		// The chord through the Earth never exceeds the great circle distance.
+		double[] lons = { 13.4050, 2.3522, -74.0060, 13.4100 };
+		double[] lats = { 52.5200, 48.8566, 40.7128, 52.5230 };
+		NodeCoordinates geographic = NodeCoordinates.geographic(lons, lats, 1);
+		for (int i = 1; i < lons.length; i++) {
+			double dLat = Math.toRadians(lats[i] - lats[0]);
+			double dLon = Math.toRadians(lons[i] - lons[0]);
+			double a = Math.pow(Math.sin(dLat / 2), 2) + Math.cos(Math.toRadians(lats[0]))
+					* Math.cos(Math.toRadians(lats[i])) * Math.pow(Math.sin(dLon / 2), 2);
+			double haversine = 2 * NodeCoordinates.EARTH_RADIUS * Math.asin(Math.sqrt(a));
+			int estimate = geographic.estimateCost(0, i);
+			assertTrue(estimate <= haversine);
+			assertTrue(estimate >= haversine * 0.95);
+		}
+		// Over short distances the two agree: 475.1 m by the haversine formula.
+		assertEquals(475, geographic.estimateCost(0, 3));
+	}
+	
+	@Test
+	public void findIsochrones() {
+		GridGraph grid = GraphFactory.createGridGraph(30, 30, 5);
+		GraphNode depot1 = grid.getNode(4, 4);
+		GraphNode depot2 = grid.getNode(25, 20);
+		int[] thresholds = { 5, 10, 20, 40 };
+		
+		final List<Integer> completed = new ArrayList<Integer>();
+		final List<Integer> nodeCounts = new ArrayList<Integer>();
+		IsochroneFinder finder = new IsochroneFinder();
+		Isochrones single = finder.findIsochrones(depot1, thresholds, grid);
+		Isochrones multi = finder.findIsochrones(Arrays.asList(depot1, depot2), thresholds, grid,
+				new BandListener() {
+					public void bandCompleted(int band, int threshold, int[] nodes) {
+						completed.add(threshold);
+						nodeCounts.add(nodes.length);
+					}
+				});
+		
+		assertEquals(Arrays.asList(5, 10, 20, 40), completed);
+		for (int band = 0; band < thresholds.length; band++) {
+			Set<GraphNode> expected = PathFinder.findAllNodes(depot1, thresholds[band], grid);
+			assertEquals(expected, single.getNodesWithin(band));
+			
+			expected.addAll(PathFinder.findAllNodes(depot2, thresholds[band], grid));
+			assertEquals(expected, multi.getNodesWithin(band));
+			assertEquals(nodeCounts.get(band).intValue(), multi.getNodeCount(band));
+			
+			for (int n : multi.getNodes(band)) {
+				assertEquals(band, multi.getBand(n));
+			}
+		}
+		assertEquals(-1, single.getBand(grid.getNode(29, 29)));
+	}
+	
+	@Test
+	public void findIsochrones_overlappingStartNodes() {
+		GridGraph grid = GraphFactory.createGridGraph(30, 30, 5);
+		GraphNode depot = grid.getNode(4, 4);
+		int[] thresholds = { 0, 5, 10 };
+		
+		IsochroneFinder finder = new IsochroneFinder();
+		Isochrones single = finder.findIsochrones(depot, thresholds, grid);
+		Isochrones twice = finder.findIsochrones(Arrays.asList(depot, depot), thresholds, grid, null);
+		Isochrones overlapping = finder.findIsochrones(
+				Arrays.asList(depot, grid.getNode(4, 5), depot), thresholds, grid, null);
+		
+		for (int band = 0; band < thresholds.length; band++) {
+			assertEquals(single.getNodeCount(band), twice.getNodeCount(band));
+			assertEquals(single.getNodesWithin(band), twice.getNodesWithin(band));
+			
+			int[] nodes = overlapping.getNodes(band);
+			Set<Integer> distinct = new HashSet<Integer>();
+			for (int n : nodes) {
+				assertTrue(distinct.add(n));
+			}
+		}
+		assertEquals(1, twice.getNodeCount(0));
+		assertEquals(2, overlapping.getNodeCount(0));
+	}
+	
+	@Test
+	public void pathQueryPipeline() throws Exception {
+		GridGraph grid = GraphFactory.createGridGraph(20, 20, 5);
+		Random random = new Random(3);
+		int[][] queries = new int[200][];
+		StringBuilder lines = new StringBuilder("# start end\n");
+		for (int i = 0; i < queries.length; i++) {
+			// Few start nodes, so that queries are batched.
+			queries[i] = new int[] { random.nextInt(5) * 61, random.nextInt(grid.getNodeCount()) };
+			lines.append(queries[i][0]).append(' ').append(queries[i][1]).append('\n');
+		}
+		
+		// Ordered, as lines.
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		PathQueryPipeline pipeline = new PathQueryPipeline(grid, 2, 16, true);
+		PathQueryWriter writer = new PathQueryWriter(out, PathQueryWriter.Format.LINES, grid);
+		pipeline.subscribe(writer);
+		new PathQueryReader(new StringReader(lines.toString()), grid).subscribe(pipeline);
+		assertEquals(queries.length, writer.await());
+		
+		String[] results = out.toString("US-ASCII").split("\n");
+		assertEquals(queries.length, results.length);
+		for (int i = 0; i < queries.length; i++) {
+			String[] fields = results[i].split(" ");
+			assertEquals(i + 2, Long.parseLong(fields[0]));
+			int cost = PathFinder.findLowestPathCost(
+					grid.getNode(queries[i][0]), grid.getNode(queries[i][1]), grid);
+			assertEquals(cost, Integer.parseInt(fields[1]));
+			assertEquals(queries[i][0], Integer.parseInt(fields[2]));
+			assertEquals(queries[i][1], Integer.parseInt(fields[fields.length - 1]));
+		}
+		
+		// Unordered, in binary.
+		out = new ByteArrayOutputStream();
+		pipeline = new PathQueryPipeline(grid, 3, 8, false);
+		writer = new PathQueryWriter(out, PathQueryWriter.Format.BINARY, grid);
+		pipeline.subscribe(writer);
+		new PathQueryReader(new StringReader(lines.toString()), grid).subscribe(pipeline);
+		writer.await();
+		
+		DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+		Set<Long> ids = new HashSet<Long>();
+		for (int i = 0; i < queries.length; i++) {
+			long id = in.readLong();
+			int cost = in.readInt();
+			in.skipBytes(4 * in.readInt());
+			int[] query = queries[(int) id - 2];
+			assertEquals(PathFinder.findLowestPathCost(
+					grid.getNode(query[0]), grid.getNode(query[1]), grid), cost);
+			ids.add(id);
+		}
+		assertEquals(queries.length, ids.size());
+		assertEquals(-1, in.read());
+		
+		// A subscriber that asks for one result at a time holds up the
+		// producer: every time upstream is asked for queries, it has been
+		// asked for no more than 8 beyond the results delivered so far.
+		// The pipeline only asks from onSubscribe() and from the drain
+		// that delivers results, and the last drain signals onComplete(),
+		// so once that arrives every request has been checked.
+		final int queryCount = 40;
+		final AtomicLong requested = new AtomicLong();
+		final AtomicLong received = new AtomicLong();
+		final AtomicLong overRequested = new AtomicLong();
+		final CountDownLatch completed = new CountDownLatch(1);
+		pipeline = new PathQueryPipeline(grid, 2, 8, true);
+		pipeline.subscribe(new Flow.Subscriber<PathQueryResult>() {
+			private Flow.Subscription subscription;
+			public void onSubscribe(Flow.Subscription subscription) {
+				this.subscription = subscription;
+				subscription.request(1);
+			}
+			public void onNext(PathQueryResult item) {
+				received.incrementAndGet();
+				subscription.request(1);
+			}
+			public void onError(Throwable throwable) {
+			}
+			public void onComplete() {
+				completed.countDown();
+			}
+		});
+		final Flow.Subscriber<? super PathQuery> subscriber = pipeline;
+		subscriber.onSubscribe(new Flow.Subscription() {
+			private int sent = 0;
+			public synchronized void request(long n) {
+				if (requested.addAndGet(n) > 8 + received.get()) {
+					overRequested.incrementAndGet();
+				}
+				for (long i = 0; i < n && sent < queryCount; i++) {
+					subscriber.onNext(new PathQuery(sent++, grid.getNode(0), grid.getNode(399)));
+					if (sent == queryCount) {
+						subscriber.onComplete();
+					}
+				}
+			}
+			public void cancel() {
+			}
+		});
+		assertTrue(completed.await(30, TimeUnit.SECONDS));
+		assertEquals(queryCount, received.get());
+		assertEquals(0, overRequested.get());
+		assertTrue(requested.get() <= 8 + queryCount);
+	}
+	
+	@Test
+	public void pathQueryPipeline_slowSubscriber() throws Exception {
+		final GridGraph grid = GraphFactory.createGridGraph(20, 20, 5);
+		final PathQueryPipeline pipeline = new PathQueryPipeline(grid, 2, 8, false);
+		final CountDownLatch entered = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		final CountDownLatch delivered = new CountDownLatch(3);
+		
+		// A subscriber that blocks in its first onNext(), as on slow I/O.
+		pipeline.subscribe(new Flow.Subscriber<PathQueryResult>() {
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+			public void onNext(PathQueryResult item) {
+				entered.countDown();
+				try {
+					release.await();
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				delivered.countDown();
+			}
+			public void onError(Throwable throwable) {
+			}
+			public void onComplete() {
+			}
+		});
+		pipeline.onSubscribe(new Flow.Subscription() {
+			public void request(long n) {
+			}
+			public void cancel() {
+			}
+		});
+		
+		pipeline.onNext(new PathQuery(1, grid.getNode(0), grid.getNode(399)));
+		assertTrue(entered.await(10, TimeUnit.SECONDS));
+		
+		// More queries are taken and answered while the subscriber is busy.
+		Thread publisher = new Thread() {
+			public void run() {
+				pipeline.onNext(new PathQuery(2, grid.getNode(5), grid.getNode(200)));
+				pipeline.onNext(new PathQuery(3, grid.getNode(9), grid.getNode(300)));
+			}
+		};
+		publisher.start();
+		publisher.join(5000);
+		assertFalse(publisher.isAlive());
+		
+		release.countDown();
+		assertTrue(delivered.await(10, TimeUnit.SECONDS));
+	}
+	
+	@Test
+	public void pathQueryPipeline_badRequest() throws Exception {
+		GridGraph grid = GraphFactory.createGridGraph(5, 5, 5);
+		PathQueryPipeline pipeline = new PathQueryPipeline(grid, 1, 4, true);
+		final AtomicLong cancelled = new AtomicLong();
+		final List<Throwable> errors = new ArrayList<Throwable>();
+		
+		pipeline.onSubscribe(new Flow.Subscription() {
+			public void request(long n) {
+			}
+			public void cancel() {
+				cancelled.incrementAndGet();
+			}
+		});
+		pipeline.subscribe(new Flow.Subscriber<PathQueryResult>() {
+			public void onSubscribe(Flow.Subscription subscription) {
+				subscription.request(0);
+			}
+			public void onNext(PathQueryResult item) {
+			}
+			public void onError(Throwable throwable) {
+				errors.add(throwable);
+			}
+			public void onComplete() {
+			}
+		});
+		
+		assertEquals(1, cancelled.get());
+		assertEquals(1, errors.size());
+		assertTrue(errors.get(0) instanceof IllegalArgumentException);
+	}
+	
+	@Test
+	public void findKShortestPaths() {
+		GridGraph grid = GraphFactory.createGridGraph(4, 4, 5);
+		GraphNode start = grid.getNode(0, 0);
+		GraphNode end = grid.getNode(3, 3);
+		
+		// Every loopless path, by brute force.
+		List<Integer> allCosts = new ArrayList<Integer>();
+		List<GraphNode> path = new ArrayList<GraphNode>();
+		path.add(start);
+		addPathCosts(path, end, grid, allCosts);
+		Collections.sort(allCosts);
+		
+		List<PathResult> paths = KShortestPaths.findShortestPaths(start, end, 12, grid);
+		List<PathResult> parallelPaths = KShortestPaths.findShortestPaths(start, end, 12, 3, grid);
+		assertEquals(12, paths.size());
+		assertEquals(PathFinder.findLowestPathCost(start, end, grid), paths.get(0).getCost());
+		
+		Set<List<GraphNode>> distinct = new HashSet<List<GraphNode>>();
+		for (int i = 0; i < paths.size(); i++) {
+			PathResult p = paths.get(i);
+			assertEquals(allCosts.get(i).intValue(), p.getCost());
+			assertEquals(p.getCost(), parallelPaths.get(i).getCost());
+			assertEquals(p.getCost(), pathCost(p.getNodes(), grid));
+			assertEquals(start, p.getNodes().get(0));
+			assertEquals(end, p.getEndNode());
+			assertEquals(p.getNodes().size(), new HashSet<GraphNode>(p.getNodes()).size());
+			assertTrue(distinct.add(p.getNodes()));
+		}
+		
+		// There are only so many loopless paths.
+		assertEquals(allCosts.size(), KShortestPaths.findShortestPaths(start, end, 1000, grid).size());
+	}
+	
+	@Test
+	public void reorderNodes() {
+		GridGraph grid = GraphFactory.createGridGraph(12, 12, 5);
+		List<GraphNode> nodes = allNodes(grid);
+		Collections.shuffle(nodes, new Random(5));
+		
+		double[] xs = new double[nodes.size()];
+		double[] ys = new double[nodes.size()];
+		int[] inputOrder = new int[nodes.size()];
+		for (int i = 0; i < nodes.size(); i++) {
+			GridNode gn = (GridNode) nodes.get(i);
+			xs[i] = gn.getX();
+			ys[i] = gn.getY();
+			inputOrder[i] = i;
+		}
+		
+		CompactGraph shuffled = new CompactGraph(grid, nodes, inputOrder);
+		for (int[] order : Arrays.asList(
+				NodeOrdering.breadthFirst(grid, nodes), NodeOrdering.hilbertCurve(xs, ys))) {
+			int[] sorted = order.clone();
+			Arrays.sort(sorted);
+			assertArrayEquals(inputOrder, sorted);
+			
+			CompactGraph compact = new CompactGraph(grid, nodes, order);
+			assertTrue(compact.getAverageEdgeSpan() < shuffled.getAverageEdgeSpan() / 3);
+			
+			for (int i = 0; i < compact.getNodeCount(); i++) {
+				assertEquals(nodes.get(order[i]), compact.getNode(i));
+				assertEquals(i, compact.getNodeIndex(compact.getNode(i)));
+			}
+			
+			GraphNode start = grid.getNode(0, 0);
+			for (int i = 0; i < 144; i += 11) {
+				GraphNode end = grid.getNode(i);
+				List<GraphNode> path = new OffHeapPathFinder().findShortestPath(start, end, compact);
+				assertEquals(PathFinder.findLowestPathCost(start, end, grid), pathCost(path, grid));
+			}
+			
+			ThreadSafeCompactGraph threadSafe = new ThreadSafeCompactGraph(grid, nodes, order);
+			assertEquals(PathFinder.findLowestPathCost(start, grid.getNode(143), grid),
+					ParallelPathFinder.findLowestPathCost(start, grid.getNode(143), 2, threadSafe));
+		}
+		
+		// Any graph may be copied, not only a ThreadSafeGraph.
+		CompactGraph compact = new CompactGraph(graph,
+				Arrays.asList(n4, n3, n2, n1), new int[] { 3, 2, 1, 0 });
+		assertEquals(n1, compact.getNode(0));
+		assertArrayEquals(new GraphNode[] { n1, n2, n4 },
+				new OffHeapPathFinder().findShortestPath(n1, n4, compact).toArray());
+	}
+	
+	@Test
+	public void batchPathFinder() {
+		GridGraph grid = GraphFactory.createGridGraph(20, 20, 5);
+		PointGraph points = GraphFactory.createPointGraph(500, 4, 2);
+		Random random = new Random(7);
+		BatchPathFinder finder = new BatchPathFinder();
+		
+		for (IndexedGraph graph : Arrays.<IndexedGraph>asList(grid, points)) {
+			// Start nodes clustered, more queries than fit in one group.
+			List<PathQuery> queries = new ArrayList<PathQuery>();
+			for (int i = 0; i < 150; i++) {
+				GraphNode start = graph.getNode(random.nextInt(6) * 3);
+				GraphNode end = i % 50 == 0 ? start : graph.getNode(random.nextInt(graph.getNodeCount()));
+				queries.add(new PathQuery(i, start, end));
+			}
+			
+			int[] costs = finder.findLowestPathCosts(queries, graph);
+			List<PathQueryResult> results = finder.findShortestPaths(queries, graph);
+			assertEquals(queries.size(), results.size());
+			
+			for (int i = 0; i < queries.size(); i++) {
+				PathQuery query = queries.get(i);
+				int cost = PathFinder.findLowestPathCost(query.getStartNode(), query.getEndNode(), graph);
+				assertEquals(cost, costs[i]);
+				assertEquals(cost, results.get(i).getCost());
+				assertEquals(query, results.get(i).getQuery());
+				if (cost >= 0) {
+					List<GraphNode> path = results.get(i).getPath().getNodes();
+					assertEquals(query.getStartNode(), path.get(0));
+					assertEquals(query.getEndNode(), path.get(path.size() - 1));
+					assertEquals(cost, pathCost(path, graph));
+				}
+			}
+		}
+	}
+	
+	@Test
+	public void hilbertCurve_cornerOrder() {
+		// The corners of a square, followed along the curve from (0, 0).
+		double[] xs = { 0, 1, 1, 0 };
+		double[] ys = { 0, 0, 1, 1 };
+		assertArrayEquals(new int[] { 0, 3, 2, 1 }, NodeOrdering.hilbertCurve(xs, ys));
+		
+		// Points along the far half of the curve come after the near half.
+		xs = new double[] { 1, 0, 0.5, 0.75 };
+		ys = new double[] { 0, 0, 0.5, 0.25 };
+		int[] order = NodeOrdering.hilbertCurve(xs, ys);
+		assertEquals(1, order[0]);
+		assertEquals(0, order[3]);
+	}
+	
+	private static void addPathCosts(List<GraphNode> path, GraphNode end, Graph graph, List<Integer> costs) {
+		GraphNode last = path.get(path.size() - 1);
+		if (last.equals(end)) {
+			costs.add(pathCost(path, graph));
+			return;
+		}
+		Iterator<? extends GraphNode> neighborNodes = graph.getNeighborNodes(last);
+		while (neighborNodes.hasNext()) {
+			GraphNode n = neighborNodes.next();
+			if (!path.contains(n)) {
+				path.add(n);
+				addPathCosts(path, end, graph, costs);
+				path.remove(path.size() - 1);
+			}
+		}
+	}
+	
+	private static List<GraphNode> allNodes(GridGraph grid) {
+		List<GraphNode> nodes = new ArrayList<GraphNode>(grid.getNodeCount());
+		for (int i = 0; i < grid.getNodeCount(); i++) {
+			nodes.add(grid.getNode(i));
+		}
+		return nodes;
+	}
+	
+	private static int pathCost(List<GraphNode> path, Graph graph) {
+		int cost = 0;
+		for (int i = 1; i < path.size(); i++) {
+			cost += graph.getCostToNeighbor(path.get(i - 1), path.get(i));
+		}
+		return cost;
+	}
+	
 }
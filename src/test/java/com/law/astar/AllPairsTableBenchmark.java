@@ -0,0 +1,73 @@
+package com.law.astar;
+
+import java.util.Random;
+
+import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.GridGraph;
+
+/**
+ * Compares building an AllPairsTable with Floyd-Warshall and with Dijkstra,
+ * and looking costs up in it against searching for them with PathFinder.
+ * This is not a unit test - run it by hand, e.g.:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.law.astar.AllPairsTableBenchmark [size] [threads]
+ * </pre>
+ *
+ * @author lweber
+ */
+public class AllPairsTableBenchmark {
+	
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) :
+				Runtime.getRuntime().availableProcessors();
+		
+		GridGraph graph = GraphFactory.createGridGraph(size, size, 9);
+		int n = graph.getNodeCount();
+		System.out.println("Grid " + size + "x" + size + " (" + n + " nodes), " + threads + " threads");
+		
+		long start = System.nanoTime();
+		AllPairsTable table = AllPairsTable.buildWithFloydWarshall(graph, threads);
+		System.out.println("Floyd-Warshall build: " + (System.nanoTime() - start) / 1000000 + " ms");
+		
+		start = System.nanoTime();
+		table = AllPairsTable.buildWithDijkstra(graph, threads);
+		System.out.println("Dijkstra build: " + (System.nanoTime() - start) / 1000000 + " ms");
+		
+		int queries = 2000;
+		Random random = new Random(1);
+		int[] from = new int[queries];
+		int[] to = new int[queries];
+		for (int i = 0; i < queries; i++) {
+			from[i] = random.nextInt(n);
+			to[i] = random.nextInt(n);
+		}
+		
+		for (int run = 0; run < 2; run++) {
+			long sum = 0;
+			start = System.nanoTime();
+			for (int i = 0; i < queries; i++) {
+				sum += PathFinder.findLowestPathCost(graph.getNode(from[i]), graph.getNode(to[i]), graph);
+			}
+			long searchNanos = System.nanoTime() - start;
+			
+			long tableSum = 0;
+			start = System.nanoTime();
+			for (int rep = 0; rep < 1000; rep++) {
+				for (int i = 0; i < queries; i++) {
+					tableSum += table.getCost(from[i], to[i]);
+				}
+			}
+			long tableNanos = (System.nanoTime() - start) / 1000;
+			
+			if (tableSum != sum * 1000) {
+				throw new IllegalStateException("Table and search costs differ.");
+			}
+			System.out.println("PathFinder.findLowestPathCost: " + searchNanos / queries + " ns/query, "
+					+ "AllPairsTable.getCost: " + tableNanos / queries + " ns/query");
+		}
+	}
+	
+}
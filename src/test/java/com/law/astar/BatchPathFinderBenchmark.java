@@ -0,0 +1,88 @@
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.PointGraph;
+
+/**
+ * Compares a burst of queries whose start nodes are clustered - a few
+ * hundred nodes in a row along the Hilbert curve - answered by
+ * BatchPathFinder, with the same queries answered one at a time by
+ * PathFinder and by OffHeapPathFinder. The graph is numbered along the
+ * curve, so that nearby start nodes fall in the same group. This is not a
+ * unit test - run it by hand, e.g.:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.law.astar.BatchPathFinderBenchmark [nodes] [queries]
+ * </pre>
+ *
+ * @author lweber
+ */
+public class BatchPathFinderBenchmark {
+	
+	public static void main(String[] args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+		
+		PointGraph points = GraphFactory.createPointGraph(nodeCount, 4, 1);
+		List<GraphNode> nodes = new ArrayList<GraphNode>(nodeCount);
+		double[] xs = new double[nodeCount];
+		double[] ys = new double[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			nodes.add(points.getNode(i));
+			xs[i] = points.getX(i);
+			ys[i] = points.getY(i);
+		}
+		CompactGraph graph = new CompactGraph(points, nodes, NodeOrdering.hilbertCurve(xs, ys));
+		
+		// The start nodes: a run of nodes along the curve, so near each other.
+		int clusterSize = 300;
+		int firstStart = nodeCount / 2;
+		
+		Random random = new Random(1);
+		List<PathQuery> queries = new ArrayList<PathQuery>(queryCount);
+		for (int i = 0; i < queryCount; i++) {
+			GraphNode start = graph.getNode(firstStart + random.nextInt(clusterSize));
+			GraphNode end = graph.getNode(random.nextInt(nodeCount));
+			queries.add(new PathQuery(i, start, end));
+		}
+		
+		System.out.println(nodeCount + " points, " + queryCount + " queries from "
+				+ clusterSize + " start nodes");
+		BatchPathFinder batchFinder = new BatchPathFinder();
+		OffHeapPathFinder offHeapFinder = new OffHeapPathFinder();
+		
+		for (int run = 0; run < 3; run++) {
+			long start = System.nanoTime();
+			int[] costs = batchFinder.findLowestPathCosts(queries, graph);
+			long batchNanos = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < queryCount; i++) {
+				PathQuery query = queries.get(i);
+				if (offHeapFinder.findLowestPathCost(query.getStartNode(), query.getEndNode(), graph) != costs[i]) {
+					throw new IllegalStateException("Costs differ for query " + i + ".");
+				}
+			}
+			long offHeapNanos = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < queryCount; i++) {
+				PathQuery query = queries.get(i);
+				if (PathFinder.findLowestPathCost(query.getStartNode(), query.getEndNode(), graph) != costs[i]) {
+					throw new IllegalStateException("Costs differ for query " + i + ".");
+				}
+			}
+			long pathFinderNanos = System.nanoTime() - start;
+			
+			System.out.printf("BatchPathFinder %6d us/query  OffHeapPathFinder %6d us/query  PathFinder %6d us/query%n",
+					batchNanos / queryCount / 1000, offHeapNanos / queryCount / 1000,
+					pathFinderNanos / queryCount / 1000);
+		}
+	}
+	
+}
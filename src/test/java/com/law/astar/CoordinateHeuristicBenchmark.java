@@ -0,0 +1,73 @@
+package com.law.astar;
+
+import java.util.Iterator;
+import java.util.Random;
+
+import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.PointGraph;
+
+/**
+ * Compares PathFinder searches of a CoordinateGraph, which estimate costs
+ * from its NodeCoordinates by node number, with searches of the same graph
+ * seen as a plain Graph, which call estimateCostToEnd() for each neighbor.
+ * This is not a unit test - run it by hand, e.g.:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.law.astar.CoordinateHeuristicBenchmark [nodes]
+ * </pre>
+ *
+ * @author lweber
+ */
+public class CoordinateHeuristicBenchmark {
+	
+	public static void main(String[] args) {
+		int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+		
+		final PointGraph graph = GraphFactory.createPointGraph(nodes, 6, 1);
+		Graph plainGraph = new Graph() {
+			public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+				return graph.getNeighborNodes(n);
+			}
+			public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+				return graph.getCostToNeighbor(n1, n2);
+			}
+			public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+				return graph.estimateCostToEnd(startNode, endNode);
+			}
+		};
+		System.out.println(nodes + " points");
+		
+		int queries = 200;
+		Random random = new Random(1);
+		GraphNode[] from = new GraphNode[queries];
+		GraphNode[] to = new GraphNode[queries];
+		for (int i = 0; i < queries; i++) {
+			from[i] = graph.getNode(random.nextInt(nodes));
+			to[i] = graph.getNode(random.nextInt(nodes));
+		}
+		
+		for (int run = 0; run < 3; run++) {
+			long start = System.nanoTime();
+			long sum = 0;
+			for (int i = 0; i < queries; i++) {
+				sum += PathFinder.findLowestPathCost(from[i], to[i], plainGraph);
+			}
+			long plainNanos = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			long coordinateSum = 0;
+			for (int i = 0; i < queries; i++) {
+				coordinateSum += PathFinder.findLowestPathCost(from[i], to[i], graph);
+			}
+			long coordinateNanos = System.nanoTime() - start;
+			
+			if (coordinateSum != sum) {
+				throw new IllegalStateException("Coordinate and estimateCostToEnd() costs differ.");
+			}
+			System.out.println("estimateCostToEnd(): " + plainNanos / queries / 1000 + " us/query, "
+					+ "NodeCoordinates: " + coordinateNanos / queries / 1000 + " us/query");
+		}
+	}
+	
+}
@@ -0,0 +1,91 @@
+package com.law.astar;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.PointGraph;
+
+/**
+ * Compares searches of a CompactGraph with its nodes in input order - here
+ * random, as points are generated in no particular order - with searches
+ * after renumbering them by NodeOrdering.breadthFirst() and
+ * NodeOrdering.hilbertCurve(). Java has no portable access to hardware
+ * cache miss counters; the average edge span (how far apart in number, and
+ * so in memory, the two nodes of an edge are) is printed as a proxy, along
+ * with the time per query. This is not a unit test - run it by hand, e.g.:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.law.astar.NodeOrderingBenchmark [nodes]
+ * </pre>
+ *
+ * Run it under 'perf stat -e cache-misses' for the miss counts themselves.
+ *
+ * @author lweber
+ */
+public class NodeOrderingBenchmark {
+	
+	public static void main(String[] args) {
+		int nodeCount = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+		
+		PointGraph points = GraphFactory.createPointGraph(nodeCount, 4, 1);
+		List<GraphNode> nodes = new ArrayList<GraphNode>(nodeCount);
+		double[] xs = new double[nodeCount];
+		double[] ys = new double[nodeCount];
+		int[] inputOrder = new int[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			nodes.add(points.getNode(i));
+			xs[i] = points.getX(i);
+			ys[i] = points.getY(i);
+			inputOrder[i] = i;
+		}
+		
+		String[] names = { "input order", "breadth first", "Hilbert curve" };
+		CompactGraph[] graphs = {
+				new CompactGraph(points, nodes, inputOrder),
+				new CompactGraph(points, nodes, NodeOrdering.breadthFirst(points, nodes)),
+				new CompactGraph(points, nodes, NodeOrdering.hilbertCurve(xs, ys)) };
+		
+		int queries = 200;
+		Random random = new Random(1);
+		GraphNode[] from = new GraphNode[queries];
+		GraphNode[] to = new GraphNode[queries];
+		for (int i = 0; i < queries; i++) {
+			from[i] = points.getNode(random.nextInt(nodeCount));
+			to[i] = points.getNode(random.nextInt(nodeCount));
+		}
+		
+		System.out.println(nodeCount + " points");
+		OffHeapPathFinder finder = new OffHeapPathFinder();
+		
+		for (int run = 0; run < 3; run++) {
+			long expected = -1;
+			for (int g = 0; g < graphs.length; g++) {
+				long start = System.nanoTime();
+				long sum = 0;
+				for (int i = 0; i < queries; i++) {
+					sum += finder.findLowestPathCost(from[i], to[i], graphs[g]);
+				}
+				long offHeapNanos = System.nanoTime() - start;
+				
+				start = System.nanoTime();
+				for (int i = 0; i < queries; i++) {
+					sum += PathFinder.findLowestPathCost(from[i], to[i], graphs[g]);
+				}
+				long pathFinderNanos = System.nanoTime() - start;
+				
+				if (expected >= 0 && sum != expected) {
+					throw new IllegalStateException("Costs differ between orders.");
+				}
+				expected = sum;
+				
+				System.out.printf("%-14s edge span %9.1f  OffHeapPathFinder %6d us/query  PathFinder %6d us/query%n",
+						names[g], graphs[g].getAverageEdgeSpan(),
+						offHeapNanos / queries / 1000, pathFinderNanos / queries / 1000);
+			}
+		}
+	}
+	
+}
@@ -0,0 +1,51 @@
+package com.law.astar;
+
+import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.GridGraph;
+
+/**
+ * Measures how ParallelPathFinder scales from 1 thread up to the number of
+ * available processors, on one corner to corner query of a generated grid
+ * graph. This is not a unit test - run it by hand, e.g.:
+ *
+ * <pre>
+ * mvn test-compile
+ * java -cp target/classes:target/test-classes com.law.astar.ParallelPathFinderBenchmark [size] [runs]
+ * </pre>
+ *
+ * @author lweber
+ */
+public class ParallelPathFinderBenchmark {
+	
+	public static void main(String[] args) {
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 500;
+		int runs = args.length > 1 ? Integer.parseInt(args[1]) : 3;
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		
+		GridGraph graph = GraphFactory.createGridGraph(size, size, 9);
+		GraphNode startNode = graph.getNode(0, 0);
+		GraphNode endNode = graph.getNode(size - 1, size - 1);
+		
+		long start = System.nanoTime();
+		int expectedCost = PathFinder.findLowestPathCost(startNode, endNode, graph);
+		System.out.println("Grid " + size + "x" + size + ", cost " + expectedCost);
+		System.out.println("PathFinder: " + (System.nanoTime() - start) / 1000000 + " ms");
+		
+		for (int threads = 1; threads <= maxThreads; threads *= 2) {
+			long best = Long.MAX_VALUE;
+			for (int i = 0; i < runs; i++) {
+				start = System.nanoTime();
+				int cost = ParallelPathFinder.findLowestPathCost(startNode, endNode, threads, graph);
+				best = Math.min(best, System.nanoTime() - start);
+				if (cost != expectedCost) {
+					throw new IllegalStateException("Expected cost " + expectedCost + " but was " + cost);
+				}
+			}
+			System.out.println("ParallelPathFinder, " + threads + " threads: " + best / 1000000 + " ms");
+			if (threads < maxThreads && threads * 2 > maxThreads) {
+				threads = maxThreads / 2;
+			}
+		}
+	}
+	
+}
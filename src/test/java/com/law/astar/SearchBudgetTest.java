@@ -0,0 +1,221 @@
+package com.law.astar;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.law.astar.graph.GraphFactory;
+import com.law.astar.graph.GridGraph;
+import com.law.astar.graph.PointGraph;
+
+/**
+ * Checks canonical queries on generated graphs against the budgets in
+ * search-budgets.properties: the most bytes a query may allocate, as
+ * counted by the JVM for the thread running it, and the most nodes it may
+ * expand. A change that makes a query allocate or expand more fails here.
+ *
+ * <p> Allocation is measured after the queries have been run enough times
+ * to be compiled, as the lowest of several measurements, so that the
+ * budgets reflect steady state. If a change lowers a query's cost, lower
+ * its budget to match; run with -Dcom.law.astar.budgets.print=true to
+ * print what each query uses.
+ *
+ * @author lweber
+ */
+public class SearchBudgetTest {
+	
+	private static final int WARMUP_RUNS = 1000;
+	private static final int MEASURED_RUNS = 20;
+	
+	private Properties budgets;
+	private com.sun.management.ThreadMXBean threadBean;
+	
+	private GridGraph grid;
+	private GraphNode corner1;
+	private GraphNode corner2;
+	private GraphNode center;
+	
+	@Before
+	public void setup() throws IOException {
+		budgets = new Properties();
+		InputStream in = getClass().getResourceAsStream("search-budgets.properties");
+		try {
+			budgets.load(in);
+		}
+		finally {
+			in.close();
+		}
+		
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean) bean;
+		Assume.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+		
+		grid = GraphFactory.createGridGraph(40, 40, 9);
+		corner1 = grid.getNode(0, 0);
+		corner2 = grid.getNode(39, 39);
+		center = grid.getNode(20, 20);
+	}
+	
+	@Test
+	public void findShortestPath() {
+		checkBytes("findShortestPath", new Runnable() {
+			public void run() {
+				PathFinder.findShortestPath(corner1, corner2, grid);
+			}
+		});
+		
+		SearchStatistics stats = new SearchStatistics();
+		PathFinder.dijkstra(corner1, corner2, Integer.MAX_VALUE, grid, stats);
+		checkExpandedNodes("findShortestPath", stats.getExpandedNodes());
+	}
+	
+	@Test
+	public void findAllNodes() {
+		checkBytes("findAllNodes", new Runnable() {
+			public void run() {
+				PathFinder.findAllNodes(center, 40, grid);
+			}
+		});
+		
+		SearchStatistics stats = new SearchStatistics();
+		PathFinder.dijkstra(center, null, 40, grid, stats);
+		checkExpandedNodes("findAllNodes", stats.getExpandedNodes());
+	}
+	
+	@Test
+	public void findNearestNodes() {
+		final Set<GraphNode> endNodes = new HashSet<GraphNode>(Arrays.asList(
+				grid.getNode(5, 30), grid.getNode(30, 5), grid.getNode(35, 35), grid.getNode(10, 12)));
+		checkBytes("findNearestNodes", new Runnable() {
+			public void run() {
+				PathFinder.findNearestNodes(center, endNodes, 2, grid);
+			}
+		});
+		
+		SearchStatistics stats = new SearchStatistics();
+		PathFinder.dijkstra(center, endNodes, 2, Integer.MAX_VALUE,
+				PathFinder.nearestEndNodeHeuristic(endNodes, grid), grid, stats);
+		checkExpandedNodes("findNearestNodes", stats.getExpandedNodes());
+	}
+	
+	@Test
+	public void coordinateGraph() {
+		final PointGraph points = GraphFactory.createPointGraph(2000, 4, 1);
+		final GraphNode start = points.getNode(0);
+		final GraphNode end = points.getNode(1999);
+		checkBytes("coordinateGraph", new Runnable() {
+			public void run() {
+				PathFinder.findShortestPath(start, end, points);
+			}
+		});
+		
+		SearchStatistics stats = new SearchStatistics();
+		PathFinder.dijkstra(start, end, Integer.MAX_VALUE, points, stats);
+		checkExpandedNodes("coordinateGraph", stats.getExpandedNodes());
+	}
+	
+	@Test
+	public void lazyPathFinder() {
+		checkBytes("lazyPathFinder", new Runnable() {
+			public void run() {
+				LazyPathFinder.findShortestPath(corner1, corner2, grid);
+			}
+		});
+		
+		SearchStatistics stats = new SearchStatistics();
+		LazyPathFinder.findShortestPath(corner1, corner2, null, grid, stats);
+		checkExpandedNodes("lazyPathFinder", stats.getExpandedNodes());
+	}
+	
+	@Test
+	public void offHeapPathFinder() {
+		final OffHeapPathFinder finder = new OffHeapPathFinder();
+		checkBytes("offHeapPathFinder", new Runnable() {
+			public void run() {
+				finder.findShortestPath(corner1, corner2, grid);
+			}
+		});
+	}
+	
+	@Test
+	public void findIsochrones() {
+		final IsochroneFinder finder = new IsochroneFinder();
+		final int[] thresholds = { 10, 20, 40 };
+		checkBytes("findIsochrones", new Runnable() {
+			public void run() {
+				finder.findIsochrones(Collections.singleton(center), thresholds, grid, null);
+			}
+		});
+	}
+	
+	@Test
+	public void kShortestPaths() {
+		final GraphNode end = grid.getNode(15, 15);
+		checkBytes("kShortestPaths", new Runnable() {
+			public void run() {
+				List<PathResult> paths = KShortestPaths.findShortestPaths(corner1, end, 5, grid);
+				assertEquals(5, paths.size());
+			}
+		});
+	}
+	
+	/**
+	 * Check the bytes a query allocates against its budget.
+	 */
+	private void checkBytes(String name, Runnable query) {
+		long thread = Thread.currentThread().getId();
+		
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			query.run();
+		}
+		
+		long bytes = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long before = threadBean.getThreadAllocatedBytes(thread);
+			query.run();
+			bytes = Math.min(bytes, threadBean.getThreadAllocatedBytes(thread) - before);
+		}
+		
+		long budget = getBudget(name + ".bytes");
+		print(name + ".bytes", bytes, budget);
+		assertTrue(name + " allocated " + bytes + " bytes, over its budget of " + budget,
+				bytes <= budget);
+	}
+	
+	/**
+	 * Check the nodes a query expands against its budget.
+	 */
+	private void checkExpandedNodes(String name, long expandedNodes) {
+		long budget = getBudget(name + ".expandedNodes");
+		print(name + ".expandedNodes", expandedNodes, budget);
+		assertTrue(name + " expanded " + expandedNodes + " nodes, over its budget of " + budget,
+				expandedNodes <= budget);
+	}
+	
+	private long getBudget(String key) {
+		String value = budgets.getProperty(key);
+		assertNotNull("No budget for " + key, value);
+		return Long.parseLong(value.trim());
+	}
+	
+	private static void print(String key, long used, long budget) {
+		if (Boolean.getBoolean("com.law.astar.budgets.print")) {
+			System.out.println(key + " = " + used + " (budget " + budget + ")");
+		}
+	}
+	
+}
@@ -36,6 +36,22 @@ public class GraphFactory {
 		return g;
 	}
 	
+	/**
+	 * A generated grid graph, 'width' nodes wide and 'height' nodes high,
+	 * with edge weights from 1 to 'maxWeight'.
+	 */
+	public static GridGraph createGridGraph(int width, int height, int maxWeight) {
+		return new GridGraph(width, height, maxWeight);
+	}
+	
+	/**
+	 * A generated geometric graph of 'nodeCount' random points, each
+	 * connected to its 'degree' nearest points.
+	 */
+	public static PointGraph createPointGraph(int nodeCount, int degree, long seed) {
+		return new PointGraph(nodeCount, degree, seed);
+	}
+	
 	/**
 	 * Create a new graph node with the given name.
 	 */
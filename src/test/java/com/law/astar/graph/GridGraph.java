@@ -0,0 +1,99 @@
+package com.law.astar.graph;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import com.law.astar.GraphNode;
+import com.law.astar.IndexedGraph;
+import com.law.astar.ThreadSafeGraph;
+
+/**
+ * A generated, undirected grid graph in which each node is connected to
+ * the nodes above, below, left and right of it. Edge weights are between
+ * 1 and 'maxWeight', derived from the edge's position so the same graph
+ * is generated every time. Nothing is stored, so the graph may be as
+ * large as needed and is safe to read from several threads. Nodes are
+ * numbered row by row.
+ *
+ * <p> The heuristic is the Manhattan distance, which never over estimates
+ * because every edge costs at least 1.
+ *
+ * @author lweber
+ */
+public class GridGraph implements ThreadSafeGraph, IndexedGraph {
+	
+	private final int width;
+	private final int height;
+	private final int maxWeight;
+	
+	public GridGraph(int width, int height, int maxWeight) {
+		this.width = width;
+		this.height = height;
+		this.maxWeight = maxWeight;
+	}
+	
+	public int getWidth() {
+		return width;
+	}
+	
+	public int getHeight() {
+		return height;
+	}
+	
+	public GridNode getNode(int x, int y) {
+		return new GridNode(x, y);
+	}
+	
+	public int getNodeCount() {
+		return width * height;
+	}
+	
+	public int getNodeIndex(GraphNode n) {
+		GridNode gn = (GridNode) n;
+		return gn.getY() * width + gn.getX();
+	}
+	
+	public GraphNode getNode(int index) {
+		return new GridNode(index % width, index / width);
+	}
+	
+	public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+		GridNode gn = (GridNode) n;
+		int x = gn.getX();
+		int y = gn.getY();
+		List<GridNode> neighbors = new ArrayList<GridNode>(4);
+		if (x > 0) neighbors.add(new GridNode(x - 1, y));
+		if (x < width - 1) neighbors.add(new GridNode(x + 1, y));
+		if (y > 0) neighbors.add(new GridNode(x, y - 1));
+		if (y < height - 1) neighbors.add(new GridNode(x, y + 1));
+		return neighbors.iterator();
+	}
+	
+	public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+		GridNode g1 = (GridNode) n1;
+		GridNode g2 = (GridNode) n2;
+		int dx = Math.abs(g1.getX() - g2.getX());
+		int dy = Math.abs(g1.getY() - g2.getY());
+		if (dx + dy != 1) {
+			throw new IllegalStateException(
+					"The graph must contain both nodes and they must be neighbors.");
+		}
+		// Key the weight on the lower node of the edge so it is the same
+		// in both directions.
+		int x = Math.min(g1.getX(), g2.getX());
+		int y = Math.min(g1.getY(), g2.getY());
+		int hash = (x * 73856093) ^ (y * 19349663) ^ (dx * 83492791);
+		hash ^= hash >>> 13;
+		hash *= 0x5bd1e995;
+		hash ^= hash >>> 15;
+		return 1 + (hash & 0x7fffffff) % maxWeight;
+	}
+	
+	public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+		GridNode g1 = (GridNode) startNode;
+		GridNode g2 = (GridNode) endNode;
+		return Math.abs(g1.getX() - g2.getX()) + Math.abs(g1.getY() - g2.getY());
+	}
+	
+}
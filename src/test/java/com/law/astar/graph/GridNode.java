@@ -0,0 +1,58 @@
+package com.law.astar.graph;
+
+import com.law.astar.GraphNode;
+
+/**
+ * A node in a GridGraph, identified by its column and row.
+ *
+ * @author lweber
+ */
+public class GridNode implements GraphNode {
+	
+	private final int x;
+	private final int y;
+	
+	public GridNode(int x, int y) {
+		this.x = x;
+		this.y = y;
+	}
+	
+	public int getX() {
+		return x;
+	}
+	
+	public int getY() {
+		return y;
+	}
+	
+	public String getNodeName() {
+		return x + "," + y;
+	}
+	
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + x;
+		result = prime * result + y;
+		return result;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		GridNode other = (GridNode) obj;
+		return x == other.x && y == other.y;
+	}
+	
+	@Override
+	public String toString() {
+		return getNodeName();
+	}
+	
+}
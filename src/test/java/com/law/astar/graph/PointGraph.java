@@ -0,0 +1,181 @@
+package com.law.astar.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import com.law.astar.CoordinateGraph;
+import com.law.astar.GraphNode;
+import com.law.astar.NodeCoordinates;
+import com.law.astar.ThreadSafeGraph;
+
+/**
+ * A generated, undirected geometric graph: random points in a square, each
+ * connected to its nearest neighbors. An edge costs its length, rounded up,
+ * times a random factor from 1 to 1.5, so the straight line distance never
+ * over estimates. The same seed generates the same graph.
+ *
+ * @author lweber
+ */
+public class PointGraph implements ThreadSafeGraph, CoordinateGraph {
+	
+	private final PointNode[] nodes;
+	private final double[] xs;
+	private final double[] ys;
+	private final int[][] neighbors;
+	private final int[][] costs;
+	private final NodeCoordinates coordinates;
+	
+	public PointGraph(int nodeCount, int degree, long seed) {
+		Random random = new Random(seed);
+		double side = Math.sqrt(nodeCount) * 100;
+		
+		nodes = new PointNode[nodeCount];
+		xs = new double[nodeCount];
+		ys = new double[nodeCount];
+		for (int i = 0; i < nodeCount; i++) {
+			nodes[i] = new PointNode(i);
+			xs[i] = random.nextDouble() * side;
+			ys[i] = random.nextDouble() * side;
+		}
+		
+		// Connect each point to its nearest points, found in a grid of
+		// buckets about one point per bucket in size, in both directions.
+		int buckets = Math.max(1, (int) Math.sqrt(nodeCount));
+		List<List<Integer>> grid = new ArrayList<List<Integer>>(buckets * buckets);
+		for (int b = 0; b < buckets * buckets; b++) {
+			grid.add(new ArrayList<Integer>());
+		}
+		for (int i = 0; i < nodeCount; i++) {
+			grid.get(bucket(ys[i], side, buckets) * buckets + bucket(xs[i], side, buckets)).add(i);
+		}
+		
+		List<List<Integer>> adjacency = new ArrayList<List<Integer>>(nodeCount);
+		for (int i = 0; i < nodeCount; i++) {
+			adjacency.add(new ArrayList<Integer>());
+		}
+		
+		for (int i = 0; i < nodeCount; i++) {
+			int bx = bucket(xs[i], side, buckets);
+			int by = bucket(ys[i], side, buckets);
+			List<Integer> candidates = new ArrayList<Integer>();
+			for (int r = 1; candidates.size() <= degree && r <= buckets; r++) {
+				candidates.clear();
+				for (int y = Math.max(0, by - r); y <= Math.min(buckets - 1, by + r); y++) {
+					for (int x = Math.max(0, bx - r); x <= Math.min(buckets - 1, bx + r); x++) {
+						candidates.addAll(grid.get(y * buckets + x));
+					}
+				}
+			}
+			candidates.remove(Integer.valueOf(i));
+			
+			final int from = i;
+			Collections.sort(candidates, new Comparator<Integer>() {
+				public int compare(Integer a, Integer b) {
+					return Double.compare(distance(from, a), distance(from, b));
+				}
+			});
+			for (int k = 0; k < degree && k < candidates.size(); k++) {
+				int j = candidates.get(k);
+				if (!adjacency.get(i).contains(j)) {
+					adjacency.get(i).add(j);
+					adjacency.get(j).add(i);
+				}
+			}
+		}
+		
+		neighbors = new int[nodeCount][];
+		costs = new int[nodeCount][];
+		for (int i = 0; i < nodeCount; i++) {
+			List<Integer> adjacent = adjacency.get(i);
+			neighbors[i] = new int[adjacent.size()];
+			costs[i] = new int[adjacent.size()];
+			for (int k = 0; k < adjacent.size(); k++) {
+				neighbors[i][k] = adjacent.get(k);
+			}
+		}
+		
+		// Give each edge the same cost in both directions.
+		for (int i = 0; i < nodeCount; i++) {
+			for (int k = 0; k < neighbors[i].length; k++) {
+				int j = neighbors[i][k];
+				if (i < j) {
+					int cost = (int) Math.ceil(distance(i, j) * (1 + random.nextDouble() / 2));
+					costs[i][k] = cost;
+					costs[j][indexOf(neighbors[j], i)] = cost;
+				}
+			}
+		}
+		
+		coordinates = NodeCoordinates.planar(xs, ys, 1);
+	}
+	
+	private static int bucket(double v, double side, int buckets) {
+		return Math.min(buckets - 1, (int) (v / side * buckets));
+	}
+	
+	private static int indexOf(int[] a, int v) {
+		for (int k = 0; k < a.length; k++) {
+			if (a[k] == v) return k;
+		}
+		return -1;
+	}
+	
+	private double distance(int i, int j) {
+		double dx = xs[i] - xs[j];
+		double dy = ys[i] - ys[j];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+	
+	public double getX(int index) {
+		return xs[index];
+	}
+	
+	public double getY(int index) {
+		return ys[index];
+	}
+	
+	public NodeCoordinates getNodeCoordinates() {
+		return coordinates;
+	}
+	
+	public int getNodeCount() {
+		return nodes.length;
+	}
+	
+	public int getNodeIndex(GraphNode n) {
+		return ((PointNode) n).getIndex();
+	}
+	
+	public GraphNode getNode(int index) {
+		return nodes[index];
+	}
+	
+	public Iterator<? extends GraphNode> getNeighborNodes(GraphNode n) {
+		int[] adjacent = neighbors[getNodeIndex(n)];
+		PointNode[] result = new PointNode[adjacent.length];
+		for (int k = 0; k < adjacent.length; k++) {
+			result[k] = nodes[adjacent[k]];
+		}
+		return Arrays.asList(result).iterator();
+	}
+	
+	public int getCostToNeighbor(GraphNode n1, GraphNode n2) {
+		int i = getNodeIndex(n1);
+		int k = indexOf(neighbors[i], getNodeIndex(n2));
+		if (k < 0) {
+			throw new IllegalStateException(
+					"The graph must contain both nodes and they must be neighbors.");
+		}
+		return costs[i][k];
+	}
+	
+	public int estimateCostToEnd(GraphNode startNode, GraphNode endNode) {
+		return coordinates.estimateCost(getNodeIndex(startNode), getNodeIndex(endNode));
+	}
+	
+}
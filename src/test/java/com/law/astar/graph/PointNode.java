@@ -0,0 +1,47 @@
+package com.law.astar.graph;
+
+import com.law.astar.GraphNode;
+
+/**
+ * A node in a PointGraph, identified by its number.
+ *
+ * @author lweber
+ */
+public class PointNode implements GraphNode {
+	
+	private final int index;
+	
+	public PointNode(int index) {
+		this.index = index;
+	}
+	
+	public int getIndex() {
+		return index;
+	}
+	
+	public String getNodeName() {
+		return "p" + index;
+	}
+	
+	@Override
+	public int hashCode() {
+		return index;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		return index == ((PointNode) obj).index;
+	}
+	
+	@Override
+	public String toString() {
+		return getNodeName();
+	}
+	
+}